@@ -0,0 +1,79 @@
+package org.functional;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+public final class CachePolicy {
+
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+    private static final long NO_EXPIRY = -1;
+
+    public static CachePolicy bounded(final long maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+
+        return new CachePolicy(maximumSize, NO_EXPIRY, false, System::nanoTime);
+    }
+
+    public static CachePolicy unbounded() {
+        return new CachePolicy(UNBOUNDED, NO_EXPIRY, false, System::nanoTime);
+    }
+
+    private final long maximumSize;
+    private final long expireAfterWriteNanos;
+    private final boolean softValues;
+    private final LongSupplier ticker;
+
+    private CachePolicy(
+            final long maximumSize,
+            final long expireAfterWriteNanos,
+            final boolean softValues,
+            final LongSupplier ticker
+    ) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.softValues = softValues;
+        this.ticker = ticker;
+    }
+
+    public CachePolicy expireAfterWrite(final Duration timeToLive) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive must be positive: " + timeToLive);
+        }
+
+        return new CachePolicy(maximumSize, timeToLive.toNanos(), softValues, ticker);
+    }
+
+    public CachePolicy softValues() {
+        return new CachePolicy(maximumSize, expireAfterWriteNanos, true, ticker);
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public boolean isBounded() {
+        return maximumSize != UNBOUNDED;
+    }
+
+    public boolean expires() {
+        return expireAfterWriteNanos != NO_EXPIRY;
+    }
+
+    public boolean hasSoftValues() {
+        return softValues;
+    }
+
+    CachePolicy withTicker(final LongSupplier ticker) {
+        return new CachePolicy(maximumSize, expireAfterWriteNanos, softValues, ticker);
+    }
+
+    long getExpireAfterWriteNanos() {
+        return expireAfterWriteNanos;
+    }
+
+    LongSupplier getTicker() {
+        return ticker;
+    }
+}
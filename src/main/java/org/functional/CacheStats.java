@@ -0,0 +1,44 @@
+package org.functional;
+
+public final class CacheStats {
+
+    public static CacheStats of(final long hits, final long misses, final long evictions) {
+        return new CacheStats(hits, misses, evictions);
+    }
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    private CacheStats(final long hits, final long misses, final long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getRequests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        final long requests = getRequests();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats(hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ")";
+    }
+}
@@ -0,0 +1,91 @@
+package org.functional;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public final class ExpiringLazy<T> {
+
+    public static <A> ExpiringLazy<A> of(final Supplier<A> supplier, final Duration timeToLive) {
+        return of(supplier, timeToLive, System::nanoTime);
+    }
+
+    static <A> ExpiringLazy<A> of(final Supplier<A> supplier, final Duration timeToLive, final LongSupplier ticker) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive must be positive: " + timeToLive);
+        }
+
+        return new ExpiringLazy<>(supplier, timeToLive.toNanos(), ticker);
+    }
+
+    private final Supplier<T> supplier;
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    private final Object syncObj = new Object();
+    private volatile Computed<T> computed;
+
+    private ExpiringLazy(final Supplier<T> supplier, final long timeToLiveNanos, final LongSupplier ticker) {
+        this.supplier = supplier;
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.ticker = ticker;
+        this.computed = null;
+    }
+
+    public T get() {
+        final Computed<T> current = computed;
+        if (current != null && !current.isExpired(ticker.getAsLong())) {
+            return current.value;
+        }
+
+        synchronized (syncObj) {
+            final Computed<T> recheck = computed;
+            if (recheck != null && !recheck.isExpired(ticker.getAsLong())) {
+                return recheck.value;
+            }
+
+            return compute().value;
+        }
+    }
+
+    public Optional<T> getIfComputed() {
+        final Computed<T> current = computed;
+        return current != null && !current.isExpired(ticker.getAsLong())
+            ? Optional.ofNullable(current.value)
+            : Optional.empty();
+    }
+
+    public T refresh() {
+        synchronized (syncObj) {
+            return compute().value;
+        }
+    }
+
+    public void invalidate() {
+        computed = null;
+    }
+
+    private Computed<T> compute() {
+        final T value = supplier.get();
+        final Computed<T> result = new Computed<>(value, ticker.getAsLong() + timeToLiveNanos);
+        computed = result;
+        return result;
+    }
+
+    // Inner classes
+
+    private static final class Computed<T> {
+
+        private final T value;
+        private final long expiresAt;
+
+        private Computed(final T value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -1,33 +1,62 @@
 package org.functional;
 
+import java.util.ArrayDeque;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public final class Lazy<T> {
 
     public static <A> Lazy<A> of(Supplier<A> supplier) {
-        return new Lazy<>(supplier);
+        return new Lazy<>(supplier, null, null, false);
     }
 
+    public static CompletableFuture<Unit> forceAll(final Executor executor, final Lazy<?>... lazies) {
+        final CompletableFuture<?>[] forced = new CompletableFuture<?>[lazies.length];
+        for (int i = 0; i < lazies.length; i++) {
+            forced[i] = CompletableFuture.runAsync(lazies[i]::get, executor);
+        }
+
+        return CompletableFuture.allOf(forced).thenApply(ignore -> Unit.unit());
+    }
+
+    public static <A, B> Lazy<Tuple<A, B>> par(final Executor executor, final Lazy<A> first, final Lazy<B> second) {
+        return of(() -> {
+            final CompletableFuture<A> forcedFirst = CompletableFuture.supplyAsync(first::get, executor);
+            final B secondValue = second.get();
+            return Tuple.create(forcedFirst.join(), secondValue);
+        });
+    }
+
+    // A node is either a supplier or a function of another Lazy (flat when the function yields
+    // a Lazy itself). get() walks uncomputed dependencies with an explicit stack, so long
+    // map/flatMap chains neither nest suppliers nor recurse. Every node computes under its own
+    // lock and never while holding another one; references are dropped once computed
     private T value;
-    private boolean computed;
-    private final Supplier<T> supplier;
+    private volatile boolean computed;
+    private Supplier<T> supplier;
+    private Lazy<?> source;
+    private Function<Object, ?> function;
+    private final boolean flat;
+    private Lazy<T> inner;
     private final Object syncObj = new Object();
 
-    private Lazy(Supplier<T> supplier) {
+    @SuppressWarnings("unchecked")
+    private Lazy(Supplier<T> supplier, Lazy<?> source, Function<?, ?> function, boolean flat) {
         this.value = null;
         this.computed = false;
         this.supplier = supplier;
+        this.source = source;
+        this.function = (Function<Object, ?>) function;
+        this.flat = flat;
     }
 
     public T get() {
         if (!computed) {
-            synchronized (syncObj) {
-                if (!computed) {
-                    value = supplier.get();
-                    computed = true;
-                }
-            }
+            force();
         }
 
         return value;
@@ -38,4 +67,79 @@ public final class Lazy<T> {
             ? Optional.ofNullable(value)
             : Optional.empty();
     }
+
+    public <R> Lazy<R> map(final Function<T, R> function) {
+        return new Lazy<>(null, this, function, false);
+    }
+
+    public <R> Lazy<R> flatMap(final Function<T, Lazy<R>> function) {
+        return new Lazy<>(null, this, function, true);
+    }
+
+    public <B> Lazy<Tuple<T, B>> zip(final Lazy<B> other) {
+        return zip(other, Tuple::create);
+    }
+
+    public <B, R> Lazy<R> zip(final Lazy<B> other, final BiFunction<T, B, R> function) {
+        return flatMap(first -> other.map(second -> function.apply(first, second)));
+    }
+
+    // Private methods
+
+    private void force() {
+        final ArrayDeque<Lazy<?>> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            final Lazy<?> node = pending.peek();
+            final Lazy<?> dependency = node.step();
+            if (dependency != null) {
+                pending.push(dependency);
+            }
+            else {
+                pending.pop();
+            }
+        }
+    }
+
+    // Advances this node as far as it can without forcing another node, and returns the node
+    // it is still waiting for, if any
+    @SuppressWarnings("unchecked")
+    private Lazy<?> step() {
+        synchronized (syncObj) {
+            if (computed) {
+                return null;
+            }
+            if (supplier != null) {
+                complete(supplier.get());
+                return null;
+            }
+            if (inner == null) {
+                if (!source.computed) {
+                    return source;
+                }
+
+                final Object result = function.apply(source.value);
+                if (!flat) {
+                    complete((T) result);
+                    return null;
+                }
+                inner = (Lazy<T>) result;
+            }
+            if (!inner.computed) {
+                return inner;
+            }
+
+            complete(inner.value);
+            return null;
+        }
+    }
+
+    private void complete(final T result) {
+        value = result;
+        computed = true;
+        supplier = null;
+        source = null;
+        function = null;
+        inner = null;
+    }
 }
@@ -0,0 +1,219 @@
+package org.functional;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public final class Memoized<A, R> implements Function<A, R> {
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    private static final int MAX_SEGMENTS = 16;
+
+    public static <A, R> Memoized<A, R> of(final Function<A, R> function) {
+        return of(function, CachePolicy.bounded(DEFAULT_MAXIMUM_SIZE));
+    }
+
+    public static <A, R> Memoized<A, R> of(final Function<A, R> function, final CachePolicy policy) {
+        return new Memoized<>(function, policy);
+    }
+
+    // LRU is kept per segment: each segment is an access-ordered map behind its own lock, so
+    // unrelated keys don't contend, and values are computed outside the lock, once per entry.
+    // The segment capacities add up to the maximum size, so the cache never holds more, but
+    // eviction only looks at one segment: keys that cluster in a segment are evicted before
+    // the cache as a whole is full
+    private final Function<A, R> function;
+    private final CachePolicy policy;
+    private final LongSupplier ticker;
+    private final Segment<A, R>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private Memoized(final Function<A, R> function, final CachePolicy policy) {
+        this.function = function;
+        this.policy = policy;
+        this.ticker = policy.getTicker();
+
+        final int segmentCount = segmentCount(policy.getMaximumSize());
+        final long maximumSize = policy.getMaximumSize();
+
+        @SuppressWarnings("unchecked")
+        final Segment<A, R>[] segments = (Segment<A, R>[]) new Segment<?, ?>[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            final long segmentSize = policy.isBounded()
+                ? maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0)
+                : Long.MAX_VALUE;
+            segments[i] = new Segment<>(segmentSize, evictions);
+        }
+        this.segments = segments;
+    }
+
+    @Override
+    public R apply(final A key) {
+        final Segment<A, R> segment = segmentFor(key);
+        final long now = policy.expires() ? ticker.getAsLong() : 0;
+
+        while (true) {
+            CacheEntry<R> entry;
+            boolean created = false;
+            synchronized (segment) {
+                entry = segment.get(key);
+                if (entry == null || entry.isStale(now, policy)) {
+                    entry = new CacheEntry<>(now, () -> function.apply(key));
+                    segment.put(key, entry);
+                    created = true;
+                }
+            }
+
+            // A soft value can be cleared between the staleness check and this read; the
+            // caller that computes the value gets it back directly, anyone else retries
+            final Object value = entry.get(policy.hasSoftValues());
+            if (value == CacheEntry.CLEARED) {
+                synchronized (segment) {
+                    segment.remove(key, entry);
+                }
+                continue;
+            }
+
+            if (created) {
+                misses.increment();
+            }
+            else {
+                hits.increment();
+            }
+
+            @SuppressWarnings("unchecked")
+            final R result = (R) value;
+            return result;
+        }
+    }
+
+    public void invalidate(final A key) {
+        final Segment<A, R> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (final Segment<A, R> segment: segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (final Segment<A, R> segment: segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    public CacheStats stats() {
+        return CacheStats.of(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    // Private methods
+
+    private Segment<A, R> segmentFor(final A key) {
+        final int hash = key == null ? 0 : key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static int segmentCount(final long maximumSize) {
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 4L <= maximumSize) {
+            count <<= 1;
+        }
+
+        return count;
+    }
+
+    // Inner classes
+
+    private static final class Segment<A, R> extends LinkedHashMap<A, CacheEntry<R>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long maximumSize;
+        private final LongAdder evictions;
+
+        private Segment(final long maximumSize, final LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<A, CacheEntry<R>> eldest) {
+            if (size() > maximumSize) {
+                evictions.increment();
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    private static final class CacheEntry<R> {
+
+        private static final Object CLEARED = new Object();
+
+        private final long writtenAt;
+        private final Object syncObj = new Object();
+        private Supplier<R> supplier;
+        private volatile Object value;
+        private volatile boolean computed = false;
+
+        private CacheEntry(final long writtenAt, final Supplier<R> supplier) {
+            this.writtenAt = writtenAt;
+            this.supplier = supplier;
+        }
+
+        private boolean isStale(final long now, final CachePolicy policy) {
+            if (policy.expires() && now - writtenAt >= policy.getExpireAfterWriteNanos()) {
+                return true;
+            }
+
+            return computed && isCleared(value);
+        }
+
+        // Returns the value, or CLEARED when a soft value has been collected. The thread that
+        // computes the value returns its own strong reference, so it never sees CLEARED
+        private Object get(final boolean softValues) {
+            if (!computed) {
+                synchronized (syncObj) {
+                    if (!computed) {
+                        final R result = supplier.get();
+                        value = softValues && result != null ? new SoftReference<>(result) : result;
+                        computed = true;
+                        supplier = null;
+                        return result;
+                    }
+                }
+            }
+
+            final Object current = value;
+            if (current instanceof SoftReference) {
+                final Object referent = ((SoftReference<?>) current).get();
+                return referent != null ? referent : CLEARED;
+            }
+
+            return current;
+        }
+
+        private static boolean isCleared(final Object value) {
+            return value instanceof SoftReference && ((SoftReference<?>) value).get() == null;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package org.functional;
+
+import org.functional.collections.PersistentVector;
+import org.functional.collections.Stream;
+
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class Task<T> {
+
+    public static <A> Task<A> of(final Supplier<A> supplier) {
+        return new Task<>(context -> {
+            final CompletableFuture<A> future = new CompletableFuture<>();
+            try {
+                context.executor.execute(() -> {
+                    if (context.cancelled) {
+                        future.completeExceptionally(new CancellationException());
+                        return;
+                    }
+                    try {
+                        future.complete(supplier.get());
+                    }
+                    catch (Throwable throwable) {
+                        future.completeExceptionally(throwable);
+                    }
+                });
+            }
+            catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            return future;
+        });
+    }
+
+    public static <A> Task<A> fromFuture(final Supplier<CompletableFuture<A>> futureSupplier) {
+        return new Task<>(context -> futureSupplier.get());
+    }
+
+    public static <A> Task<A> success(final A result) {
+        return new Task<>(context -> CompletableFuture.completedFuture(result));
+    }
+
+    public static <A> Task<A> failure(final Throwable throwable) {
+        return new Task<>(context -> {
+            final CompletableFuture<A> future = new CompletableFuture<>();
+            future.completeExceptionally(throwable);
+            return future;
+        });
+    }
+
+    public static <A, B> Task<Tuple<A, B>> zipPar(final Task<A> first, final Task<B> second) {
+        return new Task<>(context -> first.start(context).thenCombine(second.start(context), Tuple::create));
+    }
+
+    public static <A, R> Task<PersistentVector<Try<R>>> traverse(
+            final Stream<A> items,
+            final Function<A, Task<R>> function,
+            final int parallelism
+    ) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+
+        return new Task<>(context -> new Traversal<>(items.iterator(), function, context).start(parallelism));
+    }
+
+    // A description of an asynchronous computation: nothing happens until run, and every run
+    // starts afresh. Steps chain on CompletableFuture callbacks, so composing never blocks a
+    // thread. Cancelling a run stops steps that have not started yet
+    private final Function<Context, CompletableFuture<T>> start;
+
+    private Task(final Function<Context, CompletableFuture<T>> start) {
+        this.start = start;
+    }
+
+    public CompletableFuture<T> run(final Executor executor) {
+        final Context context = new Context(executor);
+        final TaskFuture<T> result = new TaskFuture<>(context);
+        start(context).whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(unwrap(throwable));
+            }
+            else {
+                result.complete(value);
+            }
+        });
+
+        return result;
+    }
+
+    public <R> Task<R> map(final Function<T, R> function) {
+        return new Task<>(context -> start(context).thenApply(function));
+    }
+
+    public <R> Task<R> flatMap(final Function<T, Task<R>> function) {
+        return new Task<>(context -> start(context).thenCompose(value -> {
+            if (context.cancelled) {
+                throw new CancellationException();
+            }
+
+            return function.apply(value).start(context);
+        }));
+    }
+
+    public Task<T> recover(final Function<Throwable, T> function) {
+        return new Task<>(context -> start(context).handle((value, throwable) ->
+            throwable == null ? value : function.apply(unwrap(throwable))
+        ));
+    }
+
+    public Task<T> recoverWith(final Function<Throwable, Task<T>> function) {
+        return new Task<>(context -> start(context)
+            .handle((value, throwable) -> throwable == null
+                ? CompletableFuture.completedFuture(value)
+                : function.apply(unwrap(throwable)).start(context))
+            .thenCompose(Function.identity())
+        );
+    }
+
+    public Task<Try<T>> attempt() {
+        return new Task<>(context -> start(context).handle((value, throwable) ->
+            throwable == null ? Try.success(value) : Try.failure(unwrap(throwable))
+        ));
+    }
+
+    // Private methods
+
+    private CompletableFuture<T> start(final Context context) {
+        if (context.cancelled) {
+            final CompletableFuture<T> cancelled = new CompletableFuture<>();
+            cancelled.cancel(false);
+            return cancelled;
+        }
+
+        try {
+            return start.apply(context);
+        }
+        catch (Throwable throwable) {
+            final CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(throwable);
+            return failed;
+        }
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause()
+            : throwable;
+    }
+
+    // Inner classes
+
+    private static final class Context {
+
+        private final Executor executor;
+        private volatile boolean cancelled = false;
+
+        private Context(final Executor executor) {
+            this.executor = executor;
+        }
+    }
+
+    private static final class TaskFuture<T> extends CompletableFuture<T> {
+
+        private final Context context;
+
+        private TaskFuture(final Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            context.cancelled = true;
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private static final class Traversal<A, R> {
+
+        // At most `parallelism` tasks are in flight; each completion pulls the next item. Tasks
+        // that are already complete are handled in a loop rather than from their callback, so
+        // synchronous tasks do not nest stack frames
+        private final Iterator<A> items;
+        private final Function<A, Task<R>> function;
+        private final Context context;
+        private final CompletableFuture<PersistentVector<Try<R>>> result = new CompletableFuture<>();
+        private PersistentVector<Try<R>> results = PersistentVector.empty();
+        private int pulled = 0;
+        private int completed = 0;
+        private boolean exhausted = false;
+
+        private Traversal(final Iterator<A> items, final Function<A, Task<R>> function, final Context context) {
+            this.items = items;
+            this.function = function;
+            this.context = context;
+        }
+
+        private CompletableFuture<PersistentVector<Try<R>>> start(final int parallelism) {
+            for (int worker = 0; worker < parallelism; worker++) {
+                work();
+            }
+
+            return result;
+        }
+
+        private void work() {
+            while (true) {
+                int index = -1;
+                A item = null;
+                Throwable failure = null;
+                PersistentVector<Try<R>> finished = null;
+                synchronized (this) {
+                    if (exhausted || result.isDone()) {
+                        return;
+                    }
+                    try {
+                        if (context.cancelled) {
+                            exhausted = true;
+                            failure = new CancellationException();
+                        }
+                        else if (!items.hasNext()) {
+                            exhausted = true;
+                            finished = finishedResults();
+                        }
+                        else {
+                            item = items.next();
+                            index = pulled++;
+                            results = results.append(null);
+                        }
+                    }
+                    catch (Throwable throwable) {
+                        exhausted = true;
+                        failure = throwable;
+                    }
+                }
+
+                // result is completed outside the lock, so its callbacks never run while it is held
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                    return;
+                }
+                if (index < 0) {
+                    if (finished != null) {
+                        result.complete(finished);
+                    }
+                    return;
+                }
+
+                Task<R> task;
+                try {
+                    task = function.apply(item);
+                }
+                catch (Throwable throwable) {
+                    task = failure(throwable);
+                }
+
+                // attempt() turns task failures into values; what is left is the run being cancelled
+                final int slot = index;
+                final CompletableFuture<Try<R>> future = task.attempt().start(context);
+                if (!future.isDone()) {
+                    future.whenComplete((outcome, throwable) -> {
+                        if (accept(slot, outcome, throwable)) {
+                            work();
+                        }
+                    });
+                    return;
+                }
+
+                Try<R> outcome = null;
+                Throwable throwable = null;
+                try {
+                    outcome = future.join();
+                }
+                catch (CompletionException | CancellationException e) {
+                    throwable = e;
+                }
+                if (!accept(slot, outcome, throwable)) {
+                    return;
+                }
+            }
+        }
+
+        // Returns whether the worker should go on pulling items
+        private boolean accept(final int index, final Try<R> outcome, final Throwable throwable) {
+            if (throwable != null) {
+                result.completeExceptionally(unwrap(throwable));
+                return false;
+            }
+
+            final PersistentVector<Try<R>> finished;
+            synchronized (this) {
+                results = results.update(index, outcome);
+                completed++;
+                finished = finishedResults();
+            }
+            if (finished != null) {
+                result.complete(finished);
+            }
+
+            return true;
+        }
+
+        private PersistentVector<Try<R>> finishedResults() {
+            return exhausted && completed == pulled ? results : null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.functional;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public abstract class Trampoline<T> {
+
+    public static <A> Trampoline<A> done(final A value) {
+        return new Done<>(value);
+    }
+
+    public static <A> Trampoline<A> more(final Supplier<Trampoline<A>> next) {
+        return new More<>(next);
+    }
+
+    public <R> Trampoline<R> map(final Function<T, R> function) {
+        return flatMap(value -> done(function.apply(value)));
+    }
+
+    public <R> Trampoline<R> flatMap(final Function<T, Trampoline<R>> function) {
+        return new FlatMap<>(this, function);
+    }
+
+    // Continuations are kept on a heap-allocated stack, so neither long `more` chains nor
+    // left-nested flatMaps grow the Java stack
+    @SuppressWarnings("unchecked")
+    public T run() {
+        final Deque<Function<Object, Trampoline<Object>>> continuations = new ArrayDeque<>();
+        Trampoline<Object> current = (Trampoline<Object>) this;
+
+        while (true) {
+            if (current instanceof Done) {
+                final Object value = ((Done<Object>) current).value;
+                if (continuations.isEmpty()) {
+                    return (T) value;
+                }
+                current = continuations.pop().apply(value);
+            }
+            else if (current instanceof More) {
+                current = ((More<Object>) current).next.get();
+            }
+            else {
+                final FlatMap<Object, Object> flatMap = (FlatMap<Object, Object>) current;
+                continuations.push(flatMap.function);
+                current = flatMap.source;
+            }
+        }
+    }
+
+    private Trampoline() { }
+
+    // Inner classes
+
+    private static final class Done<T> extends Trampoline<T> {
+
+        private final T value;
+
+        private Done(final T value) {
+            this.value = value;
+        }
+    }
+
+    private static final class More<T> extends Trampoline<T> {
+
+        private final Supplier<Trampoline<T>> next;
+
+        private More(final Supplier<Trampoline<T>> next) {
+            this.next = next;
+        }
+    }
+
+    private static final class FlatMap<A, T> extends Trampoline<T> {
+
+        private final Trampoline<A> source;
+        private final Function<A, Trampoline<T>> function;
+
+        private FlatMap(final Trampoline<A> source, final Function<A, Trampoline<T>> function) {
+            this.source = source;
+            this.function = function;
+        }
+    }
+}
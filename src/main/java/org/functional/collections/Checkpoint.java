@@ -0,0 +1,58 @@
+package org.functional.collections;
+
+import java.util.Objects;
+
+public final class Checkpoint<C, S> {
+
+    public static <C, S> Checkpoint<C, S> create(final C position, final S state, final long count) {
+        return new Checkpoint<>(position, state, count);
+    }
+
+    // Where a cursor resumes, the fold state reached there and how many items it has folded
+    private final C position;
+    private final S state;
+    private final long count;
+
+    private Checkpoint(final C position, final S state, final long count) {
+        this.position = position;
+        this.state = state;
+        this.count = count;
+    }
+
+    public C getPosition() {
+        return position;
+    }
+
+    public S getState() {
+        return state;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Checkpoint)) {
+            return false;
+        }
+
+        final Checkpoint<?, ?> checkpoint = (Checkpoint<?, ?>) other;
+        return count == checkpoint.count
+            && Objects.equals(position, checkpoint.position)
+            && Objects.equals(state, checkpoint.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(position, state, count);
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint(" + position + ", " + state + ", " + count + ")";
+    }
+}
@@ -0,0 +1,12 @@
+package org.functional.collections;
+
+import java.util.Optional;
+
+public interface CheckpointStore<C, S> {
+
+    // save replaces the previous checkpoint as a whole: a crash during save leaves either the
+    // old or the new one, never a mix
+    Optional<Checkpoint<C, S>> load();
+    void save(Checkpoint<C, S> checkpoint);
+    void clear();
+}
@@ -0,0 +1,183 @@
+package org.functional.collections;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+public final class CheckpointStores {
+
+    // Keeps the checkpoint object itself, so a fold state that is mutated in place after a
+    // save changes the stored checkpoint too; use immutable states or the file store
+    public static <C, S> CheckpointStore<C, S> inMemory() {
+        return new CheckpointStore<C, S>() {
+
+            private volatile Checkpoint<C, S> checkpoint;
+
+            @Override
+            public Optional<Checkpoint<C, S>> load() {
+                return Optional.ofNullable(checkpoint);
+            }
+
+            @Override
+            public void save(final Checkpoint<C, S> checkpoint) {
+                this.checkpoint = checkpoint;
+            }
+
+            @Override
+            public void clear() {
+                checkpoint = null;
+            }
+        };
+    }
+
+    public static <C, S> CheckpointStore<C, S> file(
+            final Path path,
+            final Codec<C> positionCodec,
+            final Codec<S> stateCodec
+    ) {
+        return new FileCheckpointStore<>(path, positionCodec, stateCodec);
+    }
+
+    private CheckpointStores() {}
+
+    // Inner classes
+
+    private static final class FileCheckpointStore<C, S> implements CheckpointStore<C, S> {
+
+        private static final int MAGIC = 0x4a46434b;
+        private static final int INITIAL_CAPACITY = 256;
+
+        // The checkpoint is written to a temporary file next to the target, forced to disk and
+        // atomically moved over the target, so readers see the previous checkpoint or the new
+        // one; the directory is then forced so the rename itself survives a crash. A file
+        // system without atomic moves fails the save rather than risk a torn checkpoint.
+        // Layout: magic, count, then position and state as codec records
+        private final Path path;
+        private final Codec<C> positionCodec;
+        private final Codec<S> stateCodec;
+        private ByteBuffer scratch = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+        private FileCheckpointStore(final Path path, final Codec<C> positionCodec, final Codec<S> stateCodec) {
+            this.path = path.toAbsolutePath();
+            this.positionCodec = positionCodec;
+            this.stateCodec = stateCodec;
+        }
+
+        @Override
+        public Optional<Checkpoint<C, S>> load() {
+            final ByteBuffer buffer;
+            try {
+                buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            }
+            catch (final NoSuchFileException e) {
+                return Optional.empty();
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            try {
+                if (buffer.getInt() != MAGIC) {
+                    throw new IllegalStateException("Not a checkpoint file: " + path);
+                }
+
+                final long count = buffer.getLong();
+                final C position = positionCodec.decode(buffer);
+                final S state = stateCodec.decode(buffer);
+                return Optional.of(Checkpoint.create(position, state, count));
+            }
+            catch (final BufferUnderflowException e) {
+                throw new IllegalStateException("Truncated checkpoint file: " + path, e);
+            }
+        }
+
+        @Override
+        public synchronized void save(final Checkpoint<C, S> checkpoint) {
+            final ByteBuffer encoded = encode(checkpoint);
+            final Path directory = path.getParent();
+            Path temporary = null;
+            try {
+                temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+                try (final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    while (encoded.hasRemaining()) {
+                        channel.write(encoded);
+                    }
+                    channel.force(true);
+                }
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                temporary = null;
+                forceDirectory(directory);
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finally {
+                if (temporary != null) {
+                    deleteQuietly(temporary);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void clear() {
+            try {
+                Files.deleteIfExists(path);
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private ByteBuffer encode(final Checkpoint<C, S> checkpoint) {
+            while (true) {
+                scratch.clear();
+                try {
+                    scratch.putInt(MAGIC);
+                    scratch.putLong(checkpoint.getCount());
+                    positionCodec.encode(checkpoint.getPosition(), scratch);
+                    stateCodec.encode(checkpoint.getState(), scratch);
+                    break;
+                }
+                catch (final BufferOverflowException e) {
+                    scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+                }
+            }
+            scratch.flip();
+
+            return scratch;
+        }
+
+        private static void forceDirectory(final Path directory) throws IOException {
+            final FileChannel channel;
+            try {
+                channel = FileChannel.open(directory, StandardOpenOption.READ);
+            }
+            catch (final IOException e) {
+                // Some platforms, Windows among them, cannot open a directory; they persist
+                // renames without being asked
+                return;
+            }
+            try (final FileChannel opened = channel) {
+                opened.force(true);
+            }
+        }
+
+        private static void deleteQuietly(final Path file) {
+            try {
+                Files.deleteIfExists(file);
+            }
+            catch (final IOException e) {
+                // the failure that got us here is the one worth reporting
+            }
+        }
+    }
+}
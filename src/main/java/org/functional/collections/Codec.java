@@ -0,0 +1,11 @@
+package org.functional.collections;
+
+import java.nio.ByteBuffer;
+
+public interface Codec<T> {
+
+    // encode writes at the buffer's position and may throw BufferOverflowException, in which
+    // case the caller rewinds and retries with more room; decode reads back what encode wrote
+    void encode(T item, ByteBuffer buffer);
+    T decode(ByteBuffer buffer);
+}
@@ -0,0 +1,126 @@
+package org.functional.collections;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public final class Codecs {
+
+    private static final Codec<Integer> INTS = new Codec<Integer>() {
+
+        @Override
+        public void encode(final Integer item, final ByteBuffer buffer) {
+            buffer.putInt(item);
+        }
+
+        @Override
+        public Integer decode(final ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    private static final Codec<Long> LONGS = new Codec<Long>() {
+
+        @Override
+        public void encode(final Long item, final ByteBuffer buffer) {
+            buffer.putLong(item);
+        }
+
+        @Override
+        public Long decode(final ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    private static final Codec<Double> DOUBLES = new Codec<Double>() {
+
+        @Override
+        public void encode(final Double item, final ByteBuffer buffer) {
+            buffer.putDouble(item);
+        }
+
+        @Override
+        public Double decode(final ByteBuffer buffer) {
+            return buffer.getDouble();
+        }
+    };
+
+    private static final Codec<String> STRINGS = new Codec<String>() {
+
+        @Override
+        public void encode(final String item, final ByteBuffer buffer) {
+            putBytes(item.getBytes(StandardCharsets.UTF_8), buffer);
+        }
+
+        @Override
+        public String decode(final ByteBuffer buffer) {
+            return new String(getBytes(buffer), StandardCharsets.UTF_8);
+        }
+    };
+
+    // The only codec that relies on reflection: native images need the item types registered
+    // for serialization, the other codecs work as they are
+    private static final Codec<Object> SERIALIZED = new Codec<Object>() {
+
+        @Override
+        public void encode(final Object item, final ByteBuffer buffer) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(item);
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            putBytes(bytes.toByteArray(), buffer);
+        }
+
+        @Override
+        public Object decode(final ByteBuffer buffer) {
+            try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(getBytes(buffer)))) {
+                return in.readObject();
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (final ClassNotFoundException e) {
+                throw new UncheckedIOException(new IOException(e));
+            }
+        }
+    };
+
+    public static Codec<Integer> ints() {
+        return INTS;
+    }
+
+    public static Codec<Long> longs() {
+        return LONGS;
+    }
+
+    public static Codec<Double> doubles() {
+        return DOUBLES;
+    }
+
+    public static Codec<String> strings() {
+        return STRINGS;
+    }
+
+    public static <T> Codec<T> serialized() {
+        @SuppressWarnings("unchecked")
+        final Codec<T> serialized = (Codec<T>) SERIALIZED;
+        return serialized;
+    }
+
+    private Codecs() {}
+
+    private static void putBytes(final byte[] bytes, final ByteBuffer buffer) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] getBytes(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,22 @@
+package org.functional.collections;
+
+public interface Collector<T, B, R> {
+
+    B newBuffer();
+
+    default B newBuffer(final long expectedSize) {
+        return newBuffer();
+    }
+
+    B accumulate(B buffer, T item);
+    R freeze(B buffer);
+
+    default R collect(final Iterable<T> items) {
+        B buffer = newBuffer();
+        for (final T item: items) {
+            buffer = accumulate(buffer, item);
+        }
+
+        return freeze(buffer);
+    }
+}
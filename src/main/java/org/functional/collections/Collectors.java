@@ -0,0 +1,272 @@
+package org.functional.collections;
+
+import java.util.*;
+import java.util.function.*;
+
+public final class Collectors {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    public static <T> Collector<T, ?, List<T>> toImmutableList() {
+        return sized(ArrayBuffer<T>::new, ArrayBuffer::append, ArrayBuffer::toList);
+    }
+
+    public static <T> Collector<T, ?, T[]> toArray(final IntFunction<T[]> generator) {
+        return sized(
+            ArrayBuffer<T>::new,
+            ArrayBuffer::append,
+            buffer -> buffer.toArray(generator)
+        );
+    }
+
+    public static <T> Collector<T, ?, PersistentVector<T>> toVector() {
+        return of(
+            PersistentVector::<T>newBuilder,
+            PersistentVector.Builder::append,
+            PersistentVector.Builder::build
+        );
+    }
+
+    public static <T, K, V> Collector<T, ?, PersistentHashMap<K, V>> toHashMap(
+            final Function<T, K> keyFunction,
+            final Function<T, V> valueFunction
+    ) {
+        return of(
+            PersistentHashMap::<K, V>newBuilder,
+            (builder, it) -> builder.put(keyFunction.apply(it), valueFunction.apply(it)),
+            PersistentHashMap.Builder::build
+        );
+    }
+
+    public static <T> Collector<T, ?, int[]> toIntArray(final ToIntFunction<T> function) {
+        return sized(
+            IntArrayBuffer::new,
+            (buffer, it) -> buffer.append(function.applyAsInt(it)),
+            IntArrayBuffer::toArray
+        );
+    }
+
+    public static <T> Collector<T, ?, long[]> toLongArray(final ToLongFunction<T> function) {
+        return sized(
+            LongArrayBuffer::new,
+            (buffer, it) -> buffer.append(function.applyAsLong(it)),
+            LongArrayBuffer::toArray
+        );
+    }
+
+    public static <T> Collector<T, ?, double[]> toDoubleArray(final ToDoubleFunction<T> function) {
+        return sized(
+            DoubleArrayBuffer::new,
+            (buffer, it) -> buffer.append(function.applyAsDouble(it)),
+            DoubleArrayBuffer::toArray
+        );
+    }
+
+    public static <T> Collector<T, ?, HyperLogLog<T>> toHyperLogLog(final int precision) {
+        return of(() -> HyperLogLog.<T>create(precision), HyperLogLog::add, Function.identity());
+    }
+
+    public static <T> Collector<T, ?, KllSketch> toKllSketch(final ToDoubleFunction<T> function, final int k) {
+        return of(() -> KllSketch.create(k), (sketch, it) -> sketch.add(function.applyAsDouble(it)), Function.identity());
+    }
+
+    public static <T> Collector<T, ?, CountMinSketch<T>> toCountMinSketch(
+            final double epsilon,
+            final double confidence
+    ) {
+        return of(() -> CountMinSketch.<T>create(epsilon, confidence), CountMinSketch::add, Function.identity());
+    }
+
+    public static <T, B, R> Collector<T, B, R> of(
+            final Supplier<B> newBuffer,
+            final BiFunction<B, T, B> accumulate,
+            final Function<B, R> freeze
+    ) {
+        return new Collector<T, B, R>() {
+
+            @Override
+            public B newBuffer() {
+                return newBuffer.get();
+            }
+
+            @Override
+            public B accumulate(final B buffer, final T item) {
+                return accumulate.apply(buffer, item);
+            }
+
+            @Override
+            public R freeze(final B buffer) {
+                return freeze.apply(buffer);
+            }
+        };
+    }
+
+    private Collectors() {}
+
+    // Collectors whose buffers can be presized when the source knows its size
+    private static <T, B, R> Collector<T, B, R> sized(
+            final IntFunction<B> newBuffer,
+            final BiFunction<B, T, B> accumulate,
+            final Function<B, R> freeze
+    ) {
+        return new Collector<T, B, R>() {
+
+            @Override
+            public B newBuffer() {
+                return newBuffer.apply(DEFAULT_CAPACITY);
+            }
+
+            @Override
+            public B newBuffer(final long expectedSize) {
+                return newBuffer.apply((int) Math.min(expectedSize, Integer.MAX_VALUE - 8));
+            }
+
+            @Override
+            public B accumulate(final B buffer, final T item) {
+                return accumulate.apply(buffer, item);
+            }
+
+            @Override
+            public R freeze(final B buffer) {
+                return freeze.apply(buffer);
+            }
+        };
+    }
+
+    // Buffers
+
+    static final class ArrayBuffer<T> {
+
+        private Object[] items;
+        private int size;
+
+        ArrayBuffer() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        ArrayBuffer(final int capacity) {
+            this.items = new Object[Math.max(capacity, 1)];
+            this.size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        ArrayBuffer<T> append(final T item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, grow(size));
+            }
+            items[size++] = item;
+            return this;
+        }
+
+        List<T> toList() {
+            return new ImmutableArrayList<>(items, size);
+        }
+
+        T[] toArray(final IntFunction<T[]> generator) {
+            final T[] result = generator.apply(size);
+            System.arraycopy(items, 0, result, 0, size);
+            return result;
+        }
+    }
+
+    private static final class IntArrayBuffer {
+
+        private int[] items;
+        private int size = 0;
+
+        private IntArrayBuffer(final int capacity) {
+            this.items = new int[Math.max(capacity, 1)];
+        }
+
+        private IntArrayBuffer append(final int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, grow(size));
+            }
+            items[size++] = item;
+            return this;
+        }
+
+        private int[] toArray() {
+            return size == items.length ? items : Arrays.copyOf(items, size);
+        }
+    }
+
+    private static final class LongArrayBuffer {
+
+        private long[] items;
+        private int size = 0;
+
+        private LongArrayBuffer(final int capacity) {
+            this.items = new long[Math.max(capacity, 1)];
+        }
+
+        private LongArrayBuffer append(final long item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, grow(size));
+            }
+            items[size++] = item;
+            return this;
+        }
+
+        private long[] toArray() {
+            return size == items.length ? items : Arrays.copyOf(items, size);
+        }
+    }
+
+    private static final class DoubleArrayBuffer {
+
+        private double[] items;
+        private int size = 0;
+
+        private DoubleArrayBuffer(final int capacity) {
+            this.items = new double[Math.max(capacity, 1)];
+        }
+
+        private DoubleArrayBuffer append(final double item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, grow(size));
+            }
+            items[size++] = item;
+            return this;
+        }
+
+        private double[] toArray() {
+            return size == items.length ? items : Arrays.copyOf(items, size);
+        }
+    }
+
+    private static int grow(final int size) {
+        final int newSize = size + (size >> 1) + 1;
+        return newSize < 0 ? Integer.MAX_VALUE - 8 : newSize;
+    }
+
+    private static final class ImmutableArrayList<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[] items;
+        private final int size;
+
+        private ImmutableArrayList(final Object[] items, final int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        @Override
+        public T get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+
+            @SuppressWarnings("unchecked")
+            final T item = (T) items[index];
+            return item;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
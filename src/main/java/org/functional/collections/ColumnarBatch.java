@@ -0,0 +1,602 @@
+package org.functional.collections;
+
+import java.util.*;
+import java.util.function.*;
+
+public final class ColumnarBatch<T> {
+
+    public static <A> Schema<A> schema() {
+        return new Schema<>(PersistentVector.empty(), false);
+    }
+
+    static <A> ColumnarBatch<A> from(final Stream<A> stream, final Schema<A> schema) {
+        final long size = stream.knownSize();
+        final Collectors.ArrayBuffer<Object> buffer = stream.foldLeft(
+            new Collectors.ArrayBuffer<>((int) Math.min(size >= 0 ? size : 16, Integer.MAX_VALUE - 8)),
+            Collectors.ArrayBuffer::append
+        );
+        final Object[] rows = buffer.toArray(Object[]::new);
+
+        // One pass over the rows per column keeps each extraction loop monomorphic
+        final Object[] columns = new Object[schema.columns.size()];
+        for (int index = 0; index < columns.length; index++) {
+            columns[index] = schema.columns.get(index).extract(rows);
+        }
+
+        return new ColumnarBatch<>(schema, schema.keepRows ? rows : null, columns, rows.length);
+    }
+
+    // Struct-of-arrays layout: one primitive (or object) array per column, so field-at-a-time
+    // scans are plain array loops the JIT can unroll and vectorize. The original rows are only
+    // kept when the schema asks for them, since they hold every field a second time
+    private final Schema<T> schema;
+    private final Object[] rows;
+    private final Object[] columns;
+    private final int size;
+
+    private ColumnarBatch(final Schema<T> schema, final Object[] rows, final Object[] columns, final int size) {
+        this.schema = schema;
+        this.rows = rows;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Schema<T> getSchema() {
+        return schema;
+    }
+
+    public T getRow(final int row) {
+        checkRow(row);
+        checkRowsKept();
+
+        @SuppressWarnings("unchecked")
+        final T item = (T) rows[row];
+        return item;
+    }
+
+    public int getInt(final String column, final int row) {
+        checkRow(row);
+        return ints(column)[row];
+    }
+
+    public long getLong(final String column, final int row) {
+        checkRow(row);
+        return longs(column)[row];
+    }
+
+    public double getDouble(final String column, final int row) {
+        checkRow(row);
+        return doubles(column)[row];
+    }
+
+    public <R> R get(final String column, final int row) {
+        checkRow(row);
+
+        @SuppressWarnings("unchecked")
+        final R item = (R) objects(column)[row];
+        return item;
+    }
+
+    public long sumInt(final String column) {
+        final int[] values = ints(column);
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+
+        return sum;
+    }
+
+    public long sumLong(final String column) {
+        final long[] values = longs(column);
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+
+        return sum;
+    }
+
+    public double sumDouble(final String column) {
+        final double[] values = doubles(column);
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+
+        return sum;
+    }
+
+    public OptionalInt minInt(final String column) {
+        final int[] values = ints(column);
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+
+        int min = values[0];
+        for (int i = 1; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+
+        return OptionalInt.of(min);
+    }
+
+    public OptionalInt maxInt(final String column) {
+        final int[] values = ints(column);
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+
+        int max = values[0];
+        for (int i = 1; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+
+        return OptionalInt.of(max);
+    }
+
+    public OptionalLong minLong(final String column) {
+        final long[] values = longs(column);
+        if (size == 0) {
+            return OptionalLong.empty();
+        }
+
+        long min = values[0];
+        for (int i = 1; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+
+        return OptionalLong.of(min);
+    }
+
+    public OptionalLong maxLong(final String column) {
+        final long[] values = longs(column);
+        if (size == 0) {
+            return OptionalLong.empty();
+        }
+
+        long max = values[0];
+        for (int i = 1; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+
+        return OptionalLong.of(max);
+    }
+
+    public OptionalDouble minDouble(final String column) {
+        final double[] values = doubles(column);
+        if (size == 0) {
+            return OptionalDouble.empty();
+        }
+
+        double min = values[0];
+        for (int i = 1; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+
+        return OptionalDouble.of(min);
+    }
+
+    public OptionalDouble maxDouble(final String column) {
+        final double[] values = doubles(column);
+        if (size == 0) {
+            return OptionalDouble.empty();
+        }
+
+        double max = values[0];
+        for (int i = 1; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+
+        return OptionalDouble.of(max);
+    }
+
+    public OptionalDouble averageInt(final String column) {
+        final long sum = sumInt(column);
+        return size > 0
+            ? OptionalDouble.of((double) sum / size)
+            : OptionalDouble.empty();
+    }
+
+    public OptionalDouble averageLong(final String column) {
+        final long sum = sumLong(column);
+        return size > 0
+            ? OptionalDouble.of((double) sum / size)
+            : OptionalDouble.empty();
+    }
+
+    public OptionalDouble averageDouble(final String column) {
+        final double sum = sumDouble(column);
+        return size > 0
+            ? OptionalDouble.of(sum / size)
+            : OptionalDouble.empty();
+    }
+
+    public int countInt(final String column, final IntPredicate predicate) {
+        final int[] values = ints(column);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public int countLong(final String column, final LongPredicate predicate) {
+        final long[] values = longs(column);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public int countDouble(final String column, final DoublePredicate predicate) {
+        final double[] values = doubles(column);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public ColumnarBatch<T> filterInt(final String column, final IntPredicate predicate) {
+        final int[] values = ints(column);
+        final int[] selection = new int[size];
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                selection[selected++] = i;
+            }
+        }
+
+        return select(selection, selected);
+    }
+
+    public ColumnarBatch<T> filterLong(final String column, final LongPredicate predicate) {
+        final long[] values = longs(column);
+        final int[] selection = new int[size];
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                selection[selected++] = i;
+            }
+        }
+
+        return select(selection, selected);
+    }
+
+    public ColumnarBatch<T> filterDouble(final String column, final DoublePredicate predicate) {
+        final double[] values = doubles(column);
+        final int[] selection = new int[size];
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                selection[selected++] = i;
+            }
+        }
+
+        return select(selection, selected);
+    }
+
+    public <R> ColumnarBatch<T> filter(final String column, final Predicate<R> predicate) {
+        final Object[] values = objects(column);
+        final int[] selection = new int[size];
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            final R value = (R) values[i];
+            if (predicate.test(value)) {
+                selection[selected++] = i;
+            }
+        }
+
+        return select(selection, selected);
+    }
+
+    // Rows are not rebuilt from the columns, so this needs a batch built with Schema.withRows()
+    // and throws IllegalStateException otherwise
+    public Stream<T> toStream() {
+        checkRowsKept();
+
+        @SuppressWarnings("unchecked")
+        final List<T> items = (List<T>) Arrays.asList(rows);
+        return Streams.fromIterator(items.iterator());
+    }
+
+    public <R> Stream<R> columnStream(final String name) {
+        final int column = schema.indexOf(name);
+        final ColumnType type = schema.columns.get(column).type;
+        final Object values = columns[column];
+        final int count = size;
+        return Streams.fromIterator(new Iterator<R>() {
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public R next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+
+                @SuppressWarnings("unchecked")
+                final R item = (R) type.box(values, index++);
+                return item;
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarBatch(" + size + " rows, " + schema + ")";
+    }
+
+    // Private methods
+
+    private void checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+    }
+
+    private void checkRowsKept() {
+        if (rows == null) {
+            throw new IllegalStateException("Batch holds columns only; build it with Schema.withRows() to keep rows");
+        }
+    }
+
+    private int[] ints(final String column) {
+        return (int[]) column(column, ColumnType.INT);
+    }
+
+    private long[] longs(final String column) {
+        return (long[]) column(column, ColumnType.LONG);
+    }
+
+    private double[] doubles(final String column) {
+        return (double[]) column(column, ColumnType.DOUBLE);
+    }
+
+    private Object[] objects(final String column) {
+        return (Object[]) column(column, ColumnType.OBJECT);
+    }
+
+    private Object column(final String name, final ColumnType type) {
+        final int index = schema.indexOf(name);
+        final ColumnType actual = schema.columns.get(index).type;
+        if (actual != type) {
+            throw new IllegalArgumentException("Column " + name + " holds " + actual + ", not " + type);
+        }
+
+        return columns[index];
+    }
+
+    // Gathers the selected rows column by column, so each copy loop touches a single array
+    private ColumnarBatch<T> select(final int[] selection, final int selected) {
+        final Object[] selectedRows = rows != null
+            ? (Object[]) ColumnType.OBJECT.gather(rows, selection, selected)
+            : null;
+
+        final Object[] selectedColumns = new Object[columns.length];
+        for (int index = 0; index < columns.length; index++) {
+            selectedColumns[index] = schema.columns.get(index).type.gather(columns[index], selection, selected);
+        }
+
+        return new ColumnarBatch<>(schema, selectedRows, selectedColumns, selected);
+    }
+
+    // Inner classes
+
+    private enum ColumnType {
+
+        INT {
+            @Override
+            Object box(final Object column, final int index) {
+                return ((int[]) column)[index];
+            }
+
+            @Override
+            Object gather(final Object column, final int[] selection, final int selected) {
+                final int[] values = (int[]) column;
+                final int[] result = new int[selected];
+                for (int i = 0; i < selected; i++) {
+                    result[i] = values[selection[i]];
+                }
+                return result;
+            }
+        },
+        LONG {
+            @Override
+            Object box(final Object column, final int index) {
+                return ((long[]) column)[index];
+            }
+
+            @Override
+            Object gather(final Object column, final int[] selection, final int selected) {
+                final long[] values = (long[]) column;
+                final long[] result = new long[selected];
+                for (int i = 0; i < selected; i++) {
+                    result[i] = values[selection[i]];
+                }
+                return result;
+            }
+        },
+        DOUBLE {
+            @Override
+            Object box(final Object column, final int index) {
+                return ((double[]) column)[index];
+            }
+
+            @Override
+            Object gather(final Object column, final int[] selection, final int selected) {
+                final double[] values = (double[]) column;
+                final double[] result = new double[selected];
+                for (int i = 0; i < selected; i++) {
+                    result[i] = values[selection[i]];
+                }
+                return result;
+            }
+        },
+        OBJECT {
+            @Override
+            Object box(final Object column, final int index) {
+                return ((Object[]) column)[index];
+            }
+
+            @Override
+            Object gather(final Object column, final int[] selection, final int selected) {
+                final Object[] values = (Object[]) column;
+                final Object[] result = new Object[selected];
+                for (int i = 0; i < selected; i++) {
+                    result[i] = values[selection[i]];
+                }
+                return result;
+            }
+        };
+
+        abstract Object box(Object column, int index);
+
+        abstract Object gather(Object column, int[] selection, int selected);
+    }
+
+    private static final class ColumnSpec<T> {
+
+        private final String name;
+        private final ColumnType type;
+        private final Function<Object[], Object> extractor;
+
+        private ColumnSpec(final String name, final ColumnType type, final Function<Object[], Object> extractor) {
+            this.name = name;
+            this.type = type;
+            this.extractor = extractor;
+        }
+
+        private Object extract(final Object[] rows) {
+            return extractor.apply(rows);
+        }
+    }
+
+    public static final class Schema<T> {
+
+        private final PersistentVector<ColumnSpec<T>> columns;
+        private final boolean keepRows;
+
+        private Schema(final PersistentVector<ColumnSpec<T>> columns, final boolean keepRows) {
+            this.columns = columns;
+            this.keepRows = keepRows;
+        }
+
+        // Keeps the original rows next to the columns, for getRow and toStream
+        public Schema<T> withRows() {
+            return new Schema<>(columns, true);
+        }
+
+        public Schema<T> withInt(final String name, final ToIntFunction<T> extractor) {
+            return with(name, ColumnType.INT, rows -> {
+                final int[] values = new int[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    values[i] = extractor.applyAsInt(row(rows, i));
+                }
+                return values;
+            });
+        }
+
+        public Schema<T> withLong(final String name, final ToLongFunction<T> extractor) {
+            return with(name, ColumnType.LONG, rows -> {
+                final long[] values = new long[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    values[i] = extractor.applyAsLong(row(rows, i));
+                }
+                return values;
+            });
+        }
+
+        public Schema<T> withDouble(final String name, final ToDoubleFunction<T> extractor) {
+            return with(name, ColumnType.DOUBLE, rows -> {
+                final double[] values = new double[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    values[i] = extractor.applyAsDouble(row(rows, i));
+                }
+                return values;
+            });
+        }
+
+        public <R> Schema<T> withObject(final String name, final Function<T, R> extractor) {
+            return with(name, ColumnType.OBJECT, rows -> {
+                final Object[] values = new Object[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    values[i] = extractor.apply(row(rows, i));
+                }
+                return values;
+            });
+        }
+
+        public List<String> columnNames() {
+            final Collectors.ArrayBuffer<String> names = new Collectors.ArrayBuffer<>(columns.size());
+            for (final ColumnSpec<T> column: columns) {
+                names.append(column.name);
+            }
+
+            return names.toList();
+        }
+
+        @Override
+        public String toString() {
+            final StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            for (final ColumnSpec<T> column: columns) {
+                joiner.add(column.name + ": " + column.type.name().toLowerCase(Locale.ROOT));
+            }
+
+            return joiner.toString();
+        }
+
+        private Schema<T> with(final String name, final ColumnType type, final Function<Object[], Object> extractor) {
+            if (indexOfOrNegative(name) >= 0) {
+                throw new IllegalArgumentException("Duplicate column: " + name);
+            }
+
+            return new Schema<>(columns.append(new ColumnSpec<>(name, type, extractor)), keepRows);
+        }
+
+        private int indexOf(final String name) {
+            final int index = indexOfOrNegative(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown column: " + name);
+            }
+
+            return index;
+        }
+
+        private int indexOfOrNegative(final String name) {
+            for (int index = 0; index < columns.size(); index++) {
+                if (columns.get(index).name.equals(name)) {
+                    return index;
+                }
+            }
+
+            return -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T row(final Object[] rows, final int index) {
+            return (T) rows[index];
+        }
+    }
+}
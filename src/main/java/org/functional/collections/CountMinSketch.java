@@ -0,0 +1,124 @@
+package org.functional.collections;
+
+import java.util.function.ToLongFunction;
+
+public final class CountMinSketch<T> {
+
+    private static final long MAX_COUNTERS = Integer.MAX_VALUE - 8;
+
+    public static <A> CountMinSketch<A> create(final double epsilon, final double confidence) {
+        return create(epsilon, confidence, Hashing.DEFAULT_HASHER);
+    }
+
+    public static <A> CountMinSketch<A> create(
+            final double epsilon,
+            final double confidence,
+            final ToLongFunction<? super A> hasher
+    ) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("Epsilon must be in (0, 1): " + epsilon);
+        }
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Confidence must be in (0, 1): " + confidence);
+        }
+
+        // Sized in long so that a tiny epsilon is rejected instead of overflowing the table
+        final long width = (long) Math.ceil(Math.E / epsilon);
+        final long depth = Math.max((long) Math.ceil(Math.log(1 / (1 - confidence))), 1);
+        if (width > MAX_COUNTERS / depth) {
+            throw new IllegalArgumentException(
+                "Epsilon " + epsilon + " and confidence " + confidence + " need more than " + MAX_COUNTERS + " counters"
+            );
+        }
+
+        return new CountMinSketch<>((int) width, (int) depth, hasher);
+    }
+
+    // depth rows of width counters; row i indexes with h1 + i * h2 (Kirsch-Mitzenmacher), so
+    // one 64 bit hash serves every row. Estimates never undercount and overcount by at most
+    // epsilon * total with the given confidence
+    private final int width;
+    private final int depth;
+    private final ToLongFunction<? super T> hasher;
+    private final long[] counters;
+    private long total = 0;
+
+    private CountMinSketch(final int width, final int depth, final ToLongFunction<? super T> hasher) {
+        this.width = width;
+        this.depth = depth;
+        this.hasher = hasher;
+        this.counters = new long[width * depth];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public CountMinSketch<T> add(final T item) {
+        return add(item, 1);
+    }
+
+    public CountMinSketch<T> add(final T item, final long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+
+        final long hash = hasher.applyAsLong(item);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + index(h1, h2, row)] += count;
+        }
+        total += count;
+        return this;
+    }
+
+    public long estimateCount(final T item) {
+        final long hash = hasher.applyAsLong(item);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + index(h1, h2, row)]);
+        }
+
+        return estimate;
+    }
+
+    public CountMinSketch<T> merge(final CountMinSketch<T> other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException(
+                "Cannot merge sketches of " + depth + "x" + width + " and " + other.depth + "x" + other.width
+            );
+        }
+        // Counters only line up when both sides hash alike; hashers are compared by identity
+        if (other.hasher != hasher) {
+            throw new IllegalArgumentException("Cannot merge sketches built with different hashers");
+        }
+
+        final CountMinSketch<T> merged = new CountMinSketch<>(width, depth, hasher);
+        for (int i = 0; i < counters.length; i++) {
+            merged.counters[i] = counters[i] + other.counters[i];
+        }
+        merged.total = total + other.total;
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return "CountMinSketch(" + depth + "x" + width + ", total=" + total + ")";
+    }
+
+    private int index(final int h1, final int h2, final int row) {
+        final int combined = h1 + row * h2;
+        return (combined & Integer.MAX_VALUE) % width;
+    }
+}
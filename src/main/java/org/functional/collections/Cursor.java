@@ -0,0 +1,405 @@
+package org.functional.collections;
+
+import org.functional.Tuple;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public final class Cursor<C, T> {
+
+    public static <C, A> Cursor<C, A> unfold(final C start, final Function<C, Optional<Tuple<A, C>>> step) {
+        return new Cursor<>(start, position -> new UnfoldReader<>(position, step));
+    }
+
+    public static <A> Cursor<A, A> repeat(final A initial, final Function<A, A> f) {
+        return unfold(initial, it -> Optional.of(Tuple.create(it, f.apply(it))));
+    }
+
+    public static <A> Cursor<Integer, A> from(final List<A> items) {
+        return unfold(0, index -> index < items.size()
+            ? Optional.of(Tuple.create(items.get(index), index + 1))
+            : Optional.empty()
+        );
+    }
+
+    // Lines of a UTF-8 file, positioned by byte offset, so resuming seeks instead of re-reading
+    public static Cursor<Long, String> lines(final Path file) {
+        return new Cursor<>(0L, position -> new LineReader(file, position));
+    }
+
+    // A source that can be reopened at a position, plus the stateless stages applied to it.
+    // A position always points just past the last item handed out, so a checkpoint taken
+    // after folding an item resumes with the next one and nothing is folded twice
+    private final C start;
+    private final Function<C, Reader<C, T>> open;
+
+    private Cursor(final C start, final Function<C, Reader<C, T>> open) {
+        this.start = start;
+        this.open = open;
+    }
+
+    public C start() {
+        return start;
+    }
+
+    public <R> Cursor<C, R> map(final Function<T, R> function) {
+        return new Cursor<>(start, position -> new MappedReader<>(open.apply(position), function));
+    }
+
+    public Cursor<C, T> filter(final Predicate<T> predicate) {
+        return new Cursor<>(start, position -> new FilteredReader<>(open.apply(position), predicate));
+    }
+
+    public Stream<T> toStream() {
+        return toStream(start);
+    }
+
+    public Stream<T> toStream(final C position) {
+        return Streams.defer(() -> Streams.fromIterator(
+            new ReaderIterator<>(open.apply(position), Reader::current)
+        ));
+    }
+
+    public Stream<Tuple<T, C>> toPositionedStream(final C position) {
+        return Streams.defer(() -> Streams.fromIterator(new ReaderIterator<C, T, Tuple<T, C>>(
+            open.apply(position),
+            reader -> Tuple.create(reader.current(), reader.position())
+        )));
+    }
+
+    // Resumes from the store's checkpoint when there is one, and saves a checkpoint once
+    // `interval` source items have been read since the last one, filtered-out items included,
+    // and once more at the end, so a finished fold resumes as a no-op. Checkpoints are taken
+    // after a folded item, so a long run of filtered-out items is covered by the next one
+    public <S> S foldLeft(
+            final S initialValue,
+            final BiFunction<S, T, S> function,
+            final CheckpointStore<C, S> store,
+            final int interval
+    ) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + interval);
+        }
+
+        final Optional<Checkpoint<C, S>> saved = store.load();
+        C position = saved.map(Checkpoint::getPosition).orElse(start);
+        S state = saved.map(Checkpoint::getState).orElse(initialValue);
+        long count = saved.map(Checkpoint::getCount).orElse(0L);
+
+        try (final Reader<C, T> reader = open.apply(position)) {
+            long readsAtCheckpoint = 0;
+            while (reader.advance()) {
+                state = function.apply(state, reader.current());
+                count++;
+                if (reader.reads() - readsAtCheckpoint >= interval) {
+                    store.save(Checkpoint.create(reader.position(), state, count));
+                    readsAtCheckpoint = reader.reads();
+                }
+            }
+            if (reader.reads() > readsAtCheckpoint || !saved.isPresent()) {
+                store.save(Checkpoint.create(reader.position(), state, count));
+            }
+        }
+
+        return state;
+    }
+
+    // Inner classes
+
+    private interface Reader<C, T> extends AutoCloseable {
+
+        boolean advance();
+        T current();
+        C position();
+
+        // Items read from the underlying source so far, whether or not they were handed out
+        long reads();
+
+        @Override
+        default void close() {}
+    }
+
+    private static final class UnfoldReader<C, T> implements Reader<C, T> {
+
+        private final Function<C, Optional<Tuple<T, C>>> step;
+        private C position;
+        private T current;
+        private long reads = 0;
+
+        private UnfoldReader(final C position, final Function<C, Optional<Tuple<T, C>>> step) {
+            this.position = position;
+            this.step = step;
+        }
+
+        @Override
+        public boolean advance() {
+            final Optional<Tuple<T, C>> next = step.apply(position);
+            if (!next.isPresent()) {
+                return false;
+            }
+
+            current = next.get().getItem1();
+            position = next.get().getItem2();
+            reads++;
+            return true;
+        }
+
+        @Override
+        public T current() {
+            return current;
+        }
+
+        @Override
+        public C position() {
+            return position;
+        }
+
+        @Override
+        public long reads() {
+            return reads;
+        }
+    }
+
+    private static final class LineReader implements Reader<Long, String> {
+
+        private static final int BUFFER_SIZE = 8192;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private byte[] line = new byte[128];
+        private long position;
+        private String current;
+        private long reads = 0;
+        private boolean closed = false;
+
+        private LineReader(final Path file, final long position) {
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                channel.position(position);
+            }
+            catch (final IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            this.position = position;
+            buffer.flip();
+        }
+
+        @Override
+        public boolean advance() {
+            if (closed) {
+                return false;
+            }
+
+            int length = 0;
+            long consumed = 0;
+            while (true) {
+                if (!buffer.hasRemaining() && !fill()) {
+                    if (consumed == 0) {
+                        close();
+                        return false;
+                    }
+                    break;
+                }
+
+                final byte next = buffer.get();
+                consumed++;
+                if (next == '\n') {
+                    break;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = next;
+            }
+
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            current = new String(line, 0, length, StandardCharsets.UTF_8);
+            position += consumed;
+            reads++;
+            return true;
+        }
+
+        @Override
+        public String current() {
+            return current;
+        }
+
+        @Override
+        public Long position() {
+            return position;
+        }
+
+        @Override
+        public long reads() {
+            return reads;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                try {
+                    channel.close();
+                }
+                catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private boolean fill() {
+            buffer.clear();
+            try {
+                final int read = channel.read(buffer);
+                buffer.flip();
+                return read > 0;
+            }
+            catch (final IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class MappedReader<C, T, R> implements Reader<C, R> {
+
+        private final Reader<C, T> reader;
+        private final Function<T, R> function;
+        private R current;
+
+        private MappedReader(final Reader<C, T> reader, final Function<T, R> function) {
+            this.reader = reader;
+            this.function = function;
+        }
+
+        @Override
+        public boolean advance() {
+            if (!reader.advance()) {
+                return false;
+            }
+
+            current = function.apply(reader.current());
+            return true;
+        }
+
+        @Override
+        public R current() {
+            return current;
+        }
+
+        @Override
+        public C position() {
+            return reader.position();
+        }
+
+        @Override
+        public long reads() {
+            return reader.reads();
+        }
+
+        @Override
+        public void close() {
+            reader.close();
+        }
+    }
+
+    private static final class FilteredReader<C, T> implements Reader<C, T> {
+
+        private final Reader<C, T> reader;
+        private final Predicate<T> predicate;
+
+        private FilteredReader(final Reader<C, T> reader, final Predicate<T> predicate) {
+            this.reader = reader;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean advance() {
+            while (reader.advance()) {
+                if (predicate.test(reader.current())) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public T current() {
+            return reader.current();
+        }
+
+        @Override
+        public C position() {
+            return reader.position();
+        }
+
+        @Override
+        public long reads() {
+            return reader.reads();
+        }
+
+        @Override
+        public void close() {
+            reader.close();
+        }
+    }
+
+    private static final class ReaderIterator<C, T, R> implements Iterator<R> {
+
+        // Closes the reader once it runs out; a stream abandoned halfway keeps it open
+        private final Reader<C, T> reader;
+        private final Function<Reader<C, T>, R> extract;
+        private boolean advanced = false;
+        private boolean hasNext;
+
+        private ReaderIterator(final Reader<C, T> reader, final Function<Reader<C, T>, R> extract) {
+            this.reader = reader;
+            this.extract = extract;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!advanced) {
+                hasNext = reader.advance();
+                advanced = true;
+                if (!hasNext) {
+                    reader.close();
+                }
+            }
+
+            return hasNext;
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            advanced = false;
+            return extract.apply(reader);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.functional.collections;
+
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+final class Hashing {
+
+    // Spreads hashCode over 64 bits with the murmur3 finalizer; sketches index by the top bits,
+    // which plain hashCode values leave mostly empty
+    static final ToLongFunction<Object> DEFAULT_HASHER = item -> fmix64(Objects.hashCode(item));
+
+    static long fmix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private Hashing() {}
+}
@@ -0,0 +1,113 @@
+package org.functional.collections;
+
+import java.util.function.ToLongFunction;
+
+public final class HyperLogLog<T> {
+
+    public static final int DEFAULT_PRECISION = 14;
+
+    private static final double TWO_TO_32 = 4294967296.0;
+
+    public static <A> HyperLogLog<A> create() {
+        return create(DEFAULT_PRECISION);
+    }
+
+    public static <A> HyperLogLog<A> create(final int precision) {
+        return new HyperLogLog<>(precision, Hashing.DEFAULT_HASHER, true);
+    }
+
+    public static <A> HyperLogLog<A> create(final int precision, final ToLongFunction<? super A> hasher) {
+        return new HyperLogLog<>(precision, hasher, false);
+    }
+
+    // 2^precision one-byte registers holding the longest run of leading zeros seen per bucket;
+    // the standard error is about 1.04 / sqrt(2^precision)
+    private final int precision;
+    private final ToLongFunction<? super T> hasher;
+    private final boolean hashCodeBased;
+    private final byte[] registers;
+
+    private HyperLogLog(final int precision, final ToLongFunction<? super T> hasher, final boolean hashCodeBased) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18: " + precision);
+        }
+
+        this.precision = precision;
+        this.hasher = hasher;
+        this.hashCodeBased = hashCodeBased;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public HyperLogLog<T> add(final T item) {
+        final long hash = hasher.applyAsLong(item);
+        final int index = (int) (hash >>> (Long.SIZE - precision));
+        final byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+
+        return this;
+    }
+
+    public long estimate() {
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (final byte register: registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+
+        // hashCode only yields 2^32 distinct values, so correct for the collisions that
+        // become visible in the hundreds of millions
+        if (hashCodeBased && estimate < TWO_TO_32) {
+            estimate = -TWO_TO_32 * Math.log(1 - estimate / TWO_TO_32);
+        }
+
+        return Math.round(estimate);
+    }
+
+    public HyperLogLog<T> merge(final HyperLogLog<T> other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                "Cannot merge sketches with precision " + precision + " and " + other.precision
+            );
+        }
+        // Registers only line up when both sides hash alike; hashers are compared by identity
+        if (other.hasher != hasher) {
+            throw new IllegalArgumentException("Cannot merge sketches built with different hashers");
+        }
+
+        final HyperLogLog<T> merged = new HyperLogLog<>(precision, hasher, hashCodeBased);
+        for (int i = 0; i < registers.length; i++) {
+            merged.registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return "HyperLogLog(precision=" + precision + ", estimate=" + estimate() + ")";
+    }
+
+    private static double alpha(final int m) {
+        switch (m) {
+            case 16: return 0.673;
+            case 32: return 0.697;
+            case 64: return 0.709;
+            default: return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.functional.collections;
+
+import java.util.Arrays;
+
+public final class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    public static KllSketch create() {
+        return create(DEFAULT_K);
+    }
+
+    public static KllSketch create(final int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("K must be at least 8: " + k);
+        }
+
+        return new KllSketch(k);
+    }
+
+    // Level h holds items of weight 2^h. A full level is sorted and every other item (from a
+    // random offset) is promoted, which halves it at a bounded rank error. Capacities shrink
+    // geometrically towards the lower levels, so memory stays around 3k items whatever the
+    // input size
+    private final int k;
+    private double[][] levels = new double[][] { new double[8] };
+    private int[] sizes = new int[1];
+    private long count = 0;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private long randomState;
+
+    private KllSketch(final int k) {
+        this.k = k;
+        this.randomState = 0x9E3779B97F4A7C15L ^ k;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public KllSketch add(final double value) {
+        if (Double.isNaN(value)) {
+            return this;
+        }
+
+        append(0, value);
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+        compress();
+        return this;
+    }
+
+    public double quantile(final double rank) {
+        return quantiles(rank)[0];
+    }
+
+    public double[] quantiles(final double... ranks) {
+        for (final double rank: ranks) {
+            if (!(rank >= 0 && rank <= 1)) {
+                throw new IllegalArgumentException("Rank must be between 0 and 1: " + rank);
+            }
+        }
+
+        final double[] result = new double[ranks.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        final double[] values = new double[retained()];
+        final long[] weights = new long[values.length];
+        sortedItems(values, weights);
+
+        for (int i = 0; i < ranks.length; i++) {
+            result[i] = ranks[i] == 0 ? min : ranks[i] == 1 ? max : valueAt(values, weights, ranks[i] * count);
+        }
+
+        return result;
+    }
+
+    public KllSketch merge(final KllSketch other) {
+        final KllSketch merged = new KllSketch(Math.min(k, other.k));
+        for (final KllSketch source: new KllSketch[] { this, other }) {
+            for (int level = 0; level < source.sizes.length; level++) {
+                for (int i = 0; i < source.sizes[level]; i++) {
+                    merged.append(level, source.levels[level][i]);
+                }
+            }
+        }
+
+        merged.count = count + other.count;
+        merged.min = count == 0 ? other.min : other.count == 0 ? min : Math.min(min, other.min);
+        merged.max = count == 0 ? other.max : other.count == 0 ? max : Math.max(max, other.max);
+        merged.compress();
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return "KllSketch(k=" + k + ", count=" + count + ", retained=" + retained() + ")";
+    }
+
+    // Private methods
+
+    private int retained() {
+        int retained = 0;
+        for (final int size: sizes) {
+            retained += size;
+        }
+
+        return retained;
+    }
+
+    private int capacity(final int level) {
+        final int depth = sizes.length - 1 - level;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void append(final int level, final double value) {
+        while (level >= levels.length) {
+            levels = Arrays.copyOf(levels, levels.length + 1);
+            levels[levels.length - 1] = new double[8];
+            sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], sizes[level] * 2);
+        }
+
+        levels[level][sizes[level]++] = value;
+    }
+
+    private void compress() {
+        for (int level = 0; level < sizes.length; level++) {
+            if (sizes[level] >= capacity(level)) {
+                compact(level);
+                level = -1;
+            }
+        }
+    }
+
+    private void compact(final int level) {
+        final double[] items = levels[level];
+        final int size = sizes[level];
+        Arrays.sort(items, 0, size);
+
+        // An odd item out stays behind so the promoted half carries exactly the dropped weight
+        final int paired = size & ~1;
+        for (int i = nextBit(); i < paired; i += 2) {
+            append(level + 1, items[i]);
+        }
+
+        final double[] current = levels[level];
+        if (paired < size) {
+            current[0] = current[paired];
+        }
+        sizes[level] = size - paired;
+    }
+
+    private int nextBit() {
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        return (int) (randomState & 1);
+    }
+
+    private void sortedItems(final double[] values, final long[] weights) {
+        int filled = 0;
+        for (int level = 0; level < sizes.length; level++) {
+            final double[] items = Arrays.copyOf(levels[level], sizes[level]);
+            Arrays.sort(items);
+
+            // Merge the sorted level into the sorted prefix, back to front
+            int target = filled + items.length - 1;
+            int left = filled - 1;
+            for (int right = items.length - 1; right >= 0; target--) {
+                if (left >= 0 && values[left] > items[right]) {
+                    values[target] = values[left];
+                    weights[target] = weights[left--];
+                }
+                else {
+                    values[target] = items[right--];
+                    weights[target] = 1L << level;
+                }
+            }
+            filled += items.length;
+        }
+    }
+
+    private static double valueAt(final double[] values, final long[] weights, final double target) {
+        long cumulative = 0;
+        for (int i = 0; i < values.length; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+
+        return values[values.length - 1];
+    }
+}
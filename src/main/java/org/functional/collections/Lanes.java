@@ -0,0 +1,433 @@
+package org.functional.collections;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class Lanes<T> {
+
+    public static final int DEFAULT_LANE_CAPACITY = 1024;
+
+    private static final Object END = new Object();
+    private static final Object CANCELLED = new Object();
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+
+    static <A, K> Lanes<A> partition(final Stream<A> source, final Function<A, K> keyFunction, final int laneCount) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("Lane count must be positive: " + laneCount);
+        }
+
+        @SuppressWarnings("unchecked")
+        final Function<Object, Object> key = (Function<Object, Object>) keyFunction;
+        @SuppressWarnings("unchecked")
+        final Stream<Object> items = (Stream<Object>) source;
+        return new Lanes<>(items, key, laneCount, DEFAULT_LANE_CAPACITY, null, lane -> {
+            @SuppressWarnings("unchecked")
+            final Stream<A> typed = (Stream<A>) lane;
+            return typed;
+        });
+    }
+
+    // A router thread pulls the source and hands each item to the lane its key hashes to,
+    // through bounded queues that push back on the source. Every lane runs its own pipeline
+    // over its own Stream on a dedicated thread, so items with the same key stay in order and
+    // lane state is confined to one thread. Nothing starts before a terminal method
+    private final Stream<Object> source;
+    private final Function<Object, Object> keyFunction;
+    private final int laneCount;
+    private final int laneCapacity;
+    private final ThreadFactory threadFactory;
+    private final Function<Stream<Object>, Stream<T>> laneFunction;
+
+    private Lanes(
+            final Stream<Object> source,
+            final Function<Object, Object> keyFunction,
+            final int laneCount,
+            final int laneCapacity,
+            final ThreadFactory threadFactory,
+            final Function<Stream<Object>, Stream<T>> laneFunction
+    ) {
+        this.source = source;
+        this.keyFunction = keyFunction;
+        this.laneCount = laneCount;
+        this.laneCapacity = laneCapacity;
+        this.threadFactory = threadFactory;
+        this.laneFunction = laneFunction;
+    }
+
+    public int laneCount() {
+        return laneCount;
+    }
+
+    public Lanes<T> withLaneCapacity(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Lane capacity must be positive: " + capacity);
+        }
+
+        return new Lanes<>(source, keyFunction, laneCount, capacity, threadFactory, laneFunction);
+    }
+
+    public Lanes<T> withThreadFactory(final ThreadFactory factory) {
+        return new Lanes<>(source, keyFunction, laneCount, laneCapacity, factory, laneFunction);
+    }
+
+    public <R> Lanes<R> map(final Function<Stream<T>, Stream<R>> function) {
+        return new Lanes<>(source, keyFunction, laneCount, laneCapacity, threadFactory, laneFunction.andThen(function));
+    }
+
+    public <S> PersistentVector<S> foldLanes(final Supplier<S> initialValue, final BiFunction<S, T, S> function) {
+        final Object[] results = new Object[laneCount];
+        final Execution execution = new Execution(laneCount, laneCapacity);
+        start(execution, (lane, stream) -> results[lane] = stream.foldLeft(initialValue.get(), function));
+        execution.await();
+
+        final PersistentVector.Builder<S> builder = PersistentVector.newBuilder();
+        for (final Object result: results) {
+            @SuppressWarnings("unchecked")
+            final S state = (S) result;
+            builder.append(state);
+        }
+
+        return builder.build();
+    }
+
+    // The threads start on the first read of the merged stream and run until the lanes end or
+    // the handle is closed, so a consumer that stops early must close it
+    public Merged<T> mergeLanes() {
+        return new Merged<>(this);
+    }
+
+    // Private methods
+
+    private void start(final Execution execution, final LaneAction<T> action) {
+        final ThreadFactory factory = threadFactory != null ? threadFactory : defaultThreadFactory();
+        final BlockingQueue<Object>[] queues = execution.queues;
+
+        for (int lane = 0; lane < laneCount; lane++) {
+            final int index = lane;
+            execution.start(factory.newThread(() -> {
+                final QueueIterator items = new QueueIterator(queues[index], execution);
+                try {
+                    action.run(index, laneFunction.apply(Streams.fromIterator(items)));
+                }
+                catch (final Throwable throwable) {
+                    // Keep draining so the router, which stops at the next item, is never
+                    // left blocked on this lane's queue
+                    execution.fail(throwable);
+                    items.drain();
+                }
+                finally {
+                    execution.done.countDown();
+                }
+            }));
+        }
+
+        execution.start(factory.newThread(() -> {
+            try {
+                for (final Object item: source) {
+                    if (execution.failure.get() != null) {
+                        break;
+                    }
+                    queues[Math.floorMod(spread(keyFunction.apply(item)), laneCount)].put(item);
+                }
+            }
+            catch (final Throwable throwable) {
+                execution.fail(throwable);
+            }
+            finally {
+                for (final BlockingQueue<Object> queue: queues) {
+                    putUnlessCancelled(queue, END, execution);
+                }
+            }
+        }));
+    }
+
+    private static int spread(final Object key) {
+        return (int) Hashing.fmix64(Objects.hashCode(key));
+    }
+
+    // Cancelling sets the flag before interrupting, so a blocked put always gets to see it
+    private static void putUnlessCancelled(final BlockingQueue<Object> queue, final Object item, final Execution execution) {
+        boolean interrupted = false;
+        while (!execution.cancelled) {
+            try {
+                queue.put(item);
+                break;
+            }
+            catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory defaultThreadFactory() {
+        final int pool = poolNumber.incrementAndGet();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "jfunc-lanes-" + pool + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Inner classes
+
+    public static final class Merged<T> implements AutoCloseable {
+
+        // One run of the lanes, merged in arrival order. Closing interrupts the router and
+        // lane threads, so they exit and stop pulling the source, and drops whatever the queues
+        // still hold; a reader blocked on the merged stream, or reading it later, gets a
+        // CancellationException
+        private final Lanes<T> lanes;
+        private final Object syncObj = new Object();
+        private final Stream<T> stream;
+        private BlockingQueue<Object> merged;
+        private Execution execution;
+        private boolean closed = false;
+
+        private Merged(final Lanes<T> lanes) {
+            this.lanes = lanes;
+            this.stream = Streams.defer(this::begin);
+        }
+
+        public Stream<T> toStream() {
+            return stream;
+        }
+
+        @Override
+        public void close() {
+            synchronized (syncObj) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (execution != null) {
+                    execution.cancel();
+                    merged.clear();
+                    merged.offer(CANCELLED);
+                }
+            }
+        }
+
+        private Stream<T> begin() {
+            synchronized (syncObj) {
+                if (closed) {
+                    throw new CancellationException("Merged lanes have been closed");
+                }
+
+                final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(lanes.laneCapacity);
+                final Execution started = new Execution(lanes.laneCount, lanes.laneCapacity);
+                merged = queue;
+                execution = started;
+                lanes.start(started, (lane, laneStream) -> {
+                    try {
+                        for (final T item: laneStream) {
+                            queue.put(item);
+                        }
+                    }
+                    finally {
+                        putUnlessCancelled(queue, END, started);
+                    }
+                });
+
+                return Streams.fromIterator(new MergedIterator<>(queue, lanes.laneCount, started));
+            }
+        }
+    }
+
+    private interface LaneAction<T> {
+        void run(int lane, Stream<T> stream) throws Exception;
+    }
+
+    private static final class Execution {
+
+        private final CountDownLatch done;
+        private final BlockingQueue<Object>[] queues;
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean cancelled = false;
+
+        @SuppressWarnings("unchecked")
+        private Execution(final int laneCount, final int laneCapacity) {
+            this.done = new CountDownLatch(laneCount);
+            this.queues = (BlockingQueue<Object>[]) new BlockingQueue<?>[laneCount];
+            for (int lane = 0; lane < laneCount; lane++) {
+                queues[lane] = new ArrayBlockingQueue<>(laneCapacity);
+            }
+        }
+
+        private void start(final Thread thread) {
+            threads.add(thread);
+            thread.start();
+        }
+
+        private void fail(final Throwable throwable) {
+            failure.compareAndSet(null, throwable);
+        }
+
+        private void cancel() {
+            cancelled = true;
+            fail(new CancellationException("Merged lanes have been closed"));
+            for (final Thread thread: threads) {
+                thread.interrupt();
+            }
+            for (final BlockingQueue<Object> queue: queues) {
+                queue.clear();
+            }
+        }
+
+        private void await() {
+            try {
+                done.await();
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for lanes", e);
+            }
+            rethrowFailure();
+        }
+
+        private void rethrowFailure() {
+            final Throwable throwable = failure.get();
+            if (throwable instanceof RuntimeException) {
+                throw (RuntimeException) throwable;
+            }
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+            if (throwable != null) {
+                throw new IllegalStateException("Lane failed", throwable);
+            }
+        }
+    }
+
+    private static final class QueueIterator implements Iterator<Object> {
+
+        private final BlockingQueue<Object> queue;
+        private final Execution execution;
+        private Object next;
+        private boolean ended = false;
+
+        private QueueIterator(final BlockingQueue<Object> queue, final Execution execution) {
+            this.queue = queue;
+            this.execution = execution;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                if (execution.cancelled) {
+                    execution.rethrowFailure();
+                }
+                try {
+                    next = queue.take();
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for items", e);
+                }
+            }
+            if (next == END) {
+                ended = true;
+                execution.rethrowFailure();
+            }
+
+            return next != END;
+        }
+
+        // The interrupt that cancelled this lane may already have been consumed, so the flag is
+        // checked as well; nothing more arrives once the router has been cancelled
+        private void drain() {
+            while (!ended && !execution.cancelled) {
+                try {
+                    ended = queue.take() == END;
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Object item = next;
+            next = null;
+            return item;
+        }
+    }
+
+    private static final class MergedIterator<T> implements Iterator<T> {
+
+        private final BlockingQueue<Object> queue;
+        private final Execution execution;
+        private int openLanes;
+        private Object next;
+
+        private MergedIterator(final BlockingQueue<Object> queue, final int laneCount, final Execution execution) {
+            this.queue = queue;
+            this.openLanes = laneCount;
+            this.execution = execution;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && openLanes > 0) {
+                    final Object item = queue.take();
+                    if (item == CANCELLED) {
+                        // Put back for any other reader of the same queue
+                        queue.offer(CANCELLED);
+                        openLanes = 0;
+                    }
+                    else if (item == END) {
+                        openLanes--;
+                    }
+                    else {
+                        next = item;
+                    }
+                }
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for lanes", e);
+            }
+            if (next == null) {
+                execution.rethrowFailure();
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            @SuppressWarnings("unchecked")
+            final T item = (T) next;
+            next = null;
+            return item;
+        }
+    }
+}
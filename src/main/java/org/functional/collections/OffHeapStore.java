@@ -0,0 +1,191 @@
+package org.functional.collections;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class OffHeapStore<T> implements AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    static <A> OffHeapStore<A> from(
+            final Stream<A> stream,
+            final Codec<A> codec,
+            final int segmentSize,
+            final Path spillDirectory
+    ) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+
+        final OffHeapStore<A> store = new OffHeapStore<>(codec, spillDirectory);
+        try {
+            store.write(stream, segmentSize);
+        }
+        catch (final RuntimeException e) {
+            store.free();
+            throw e;
+        }
+
+        return store;
+    }
+
+    // Items are encoded back to back into direct segments, so the heap only holds the segment
+    // list; traversal decodes one item per node. With a spill directory, full segments are
+    // written to a temp file and mapped back read-only, leaving residency to the page cache.
+    // free() nulls the segment list, so readers take one volatile read into a local and treat
+    // null as freed
+    private final Codec<T> codec;
+    private final Path spillFile;
+    private final FileChannel spillChannel;
+    private volatile List<ByteBuffer> segments = new ArrayList<>();
+    private long size = 0;
+    private volatile boolean freed = false;
+
+    private OffHeapStore(final Codec<T> codec, final Path spillDirectory) {
+        this.codec = codec;
+        if (spillDirectory == null) {
+            this.spillFile = null;
+            this.spillChannel = null;
+            return;
+        }
+
+        try {
+            this.spillFile = Files.createTempFile(spillDirectory, "jfunc-offheap", ".seg");
+            this.spillChannel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int segmentCount() {
+        final List<ByteBuffer> current = segments;
+        return current != null ? current.size() : 0;
+    }
+
+    public boolean isFreed() {
+        return freed;
+    }
+
+    public Stream<T> toStream() {
+        checkNotFreed();
+        return Streams.fromOffHeap(this, 0, 0, size);
+    }
+
+    // Direct buffers are returned to the allocator once unreachable; the spill file goes
+    // immediately
+    public void free() {
+        synchronized (this) {
+            if (freed) {
+                return;
+            }
+            freed = true;
+            segments = null;
+        }
+
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+                Files.deleteIfExists(spillFile);
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        free();
+    }
+
+    Codec<T> codec() {
+        return codec;
+    }
+
+    ByteBuffer segment(final int index) {
+        final List<ByteBuffer> current = segments;
+        if (current == null) {
+            throw freedException();
+        }
+
+        return current.get(index);
+    }
+
+    // Private methods
+
+    private void checkNotFreed() {
+        if (freed) {
+            throw freedException();
+        }
+    }
+
+    private static IllegalStateException freedException() {
+        return new IllegalStateException("Off-heap store has been freed");
+    }
+
+    private void write(final Stream<T> stream, final int segmentSize) {
+        ByteBuffer current = ByteBuffer.allocateDirect(segmentSize);
+        for (final T item: stream) {
+            while (true) {
+                final int start = current.position();
+                try {
+                    codec.encode(item, current);
+                    if (current.position() == start) {
+                        // Items are told apart by position alone, so an empty record is lost
+                        throw new IllegalArgumentException("Codec encoded an item as zero bytes: " + item);
+                    }
+                    break;
+                }
+                catch (final BufferOverflowException e) {
+                    current.position(start);
+                    if (start == 0) {
+                        current = ByteBuffer.allocateDirect(current.capacity() * 2);
+                    }
+                    else {
+                        current = seal(current, segmentSize);
+                    }
+                }
+            }
+            size++;
+        }
+
+        if (current.position() > 0) {
+            seal(current, segmentSize);
+        }
+    }
+
+    private ByteBuffer seal(final ByteBuffer segment, final int segmentSize) {
+        segment.flip();
+        if (spillChannel == null) {
+            segments.add(segment.asReadOnlyBuffer());
+            return ByteBuffer.allocateDirect(segmentSize);
+        }
+
+        try {
+            final long offset = spillChannel.size();
+            while (segment.hasRemaining()) {
+                spillChannel.write(segment, offset + segment.position());
+            }
+            segments.add(spillChannel.map(FileChannel.MapMode.READ_ONLY, offset, segment.limit()));
+        }
+        catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        segment.clear();
+        return segment;
+    }
+}
@@ -0,0 +1,492 @@
+package org.functional.collections;
+
+import org.functional.Tuple;
+
+import java.util.*;
+
+public final class PersistentHashMap<K, V> implements Iterable<Tuple<K, V>> {
+
+    // Hash array mapped trie: 5 bits of the hash per level, bitmap-compressed nodes and
+    // collision nodes for keys sharing the full 32 bit hash
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(0, null);
+    private static final Object NOT_FOUND = new Object();
+
+    public static <A, B> PersistentHashMap<A, B> empty() {
+        @SuppressWarnings("unchecked")
+        final PersistentHashMap<A, B> empty = (PersistentHashMap<A, B>) EMPTY;
+        return empty;
+    }
+
+    public static <A, B> PersistentHashMap<A, B> from(final Iterable<Tuple<A, B>> entries) {
+        final Builder<A, B> builder = newBuilder();
+        for (final Tuple<A, B> entry: entries) {
+            builder.put(entry.getItem1(), entry.getItem2());
+        }
+
+        return builder.build();
+    }
+
+    public static <A, B> Builder<A, B> newBuilder() {
+        return new Builder<>();
+    }
+
+    private final int size;
+    private final Node root;
+
+    private PersistentHashMap(final int size, final Node root) {
+        this.size = size;
+        this.root = root;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean nonEmpty() {
+        return size > 0;
+    }
+
+    public Optional<V> get(final K key) {
+        if (root == null) {
+            return Optional.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        final V value = (V) root.find(0, hash(key), key, null);
+        return Optional.ofNullable(value);
+    }
+
+    public V getOrElse(final K key, final V defaultValue) {
+        return get(key).orElse(defaultValue);
+    }
+
+    public boolean containsKey(final K key) {
+        return root != null && root.find(0, hash(key), key, NOT_FOUND) != NOT_FOUND;
+    }
+
+    public PersistentHashMap<K, V> put(final K key, final V value) {
+        final Box addedLeaf = new Box();
+        final Node base = root != null ? root : BitmapIndexedNode.EMPTY;
+        final Node newRoot = base.put(null, 0, hash(key), key, value, addedLeaf);
+
+        return newRoot == root
+            ? this
+            : new PersistentHashMap<>(addedLeaf.value ? size + 1 : size, newRoot);
+    }
+
+    public PersistentHashMap<K, V> remove(final K key) {
+        if (root == null) {
+            return this;
+        }
+
+        final Node newRoot = root.remove(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+
+        return newRoot == null && size == 1
+            ? empty()
+            : new PersistentHashMap<>(size - 1, newRoot);
+    }
+
+    public Stream<Tuple<K, V>> toStream() {
+        return Streams.fromIterator(iterator());
+    }
+
+    @Override
+    public Iterator<Tuple<K, V>> iterator() {
+        return new NodeIterator<>(root);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PersistentHashMap) || ((PersistentHashMap<?, ?>) other).size != size) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        final PersistentHashMap<K, V> otherMap = (PersistentHashMap<K, V>) other;
+        for (final Tuple<K, V> entry: this) {
+            if (!otherMap.containsKey(entry.getItem1())
+                || !Objects.equals(entry.getItem2(), otherMap.get(entry.getItem1()).orElse(null))
+            ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (final Tuple<K, V> entry: this) {
+            hash += Objects.hashCode(entry.getItem1()) ^ Objects.hashCode(entry.getItem2());
+        }
+
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (final Tuple<K, V> entry: this) {
+            joiner.add(entry.getItem1() + "=" + entry.getItem2());
+        }
+
+        return joiner.toString();
+    }
+
+    public static final class Builder<K, V> {
+
+        // Nodes created under this token are owned by the builder and get edited in place;
+        // build() drops the token so the published trie is never touched again
+        private Object edit = new Object();
+        private final Box addedLeaf = new Box();
+        private Node root = null;
+        private int size = 0;
+
+        private Builder() {}
+
+        public Builder<K, V> put(final K key, final V value) {
+            ensureEditable();
+
+            addedLeaf.value = false;
+            final Node base = root != null ? root : BitmapIndexedNode.EMPTY;
+            root = base.put(edit, 0, hash(key), key, value, addedLeaf);
+            if (addedLeaf.value) {
+                size++;
+            }
+
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PersistentHashMap<K, V> build() {
+            ensureEditable();
+            edit = null;
+
+            return size == 0
+                ? empty()
+                : new PersistentHashMap<>(size, root);
+        }
+
+        private void ensureEditable() {
+            if (edit == null) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+        }
+    }
+
+    // Private types
+
+    private static int hash(final Object key) {
+        final int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitPos(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Object[] removePair(final Object[] array, final int idx) {
+        final Object[] result = new Object[array.length - 2];
+        System.arraycopy(array, 0, result, 0, 2 * idx);
+        System.arraycopy(array, 2 * (idx + 1), result, 2 * idx, result.length - 2 * idx);
+        return result;
+    }
+
+    private static final class Box {
+        private boolean value;
+    }
+
+    private interface Node {
+        Node put(Object edit, int shift, int hash, Object key, Object value, Box addedLeaf);
+        Node remove(int shift, int hash, Object key);
+        Object find(int shift, int hash, Object key, Object notFound);
+    }
+
+    private static final class BitmapIndexedNode implements Node {
+
+        private static final BitmapIndexedNode EMPTY = new BitmapIndexedNode(null, 0, new Object[0]);
+
+        // Pairs of (key, value) for leaves, or (null, child node) for sub-tries. Only mutated
+        // while owned by a builder's edit token
+        private final Object edit;
+        private int bitmap;
+        private Object[] array;
+
+        private BitmapIndexedNode(final Object edit, final int bitmap, final Object[] array) {
+            this.edit = edit;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private boolean isOwnedBy(final Object edit) {
+            return edit != null && this.edit == edit;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Node put(
+                final Object edit,
+                final int shift, final int hash,
+                final Object key, final Object value,
+                final Box addedLeaf
+        ) {
+            final int bit = bitPos(hash, shift);
+            final int idx = index(bit);
+            if ((bitmap & bit) == 0) {
+                final Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, 2 * idx);
+                newArray[2 * idx] = key;
+                newArray[2 * idx + 1] = value;
+                System.arraycopy(array, 2 * idx, newArray, 2 * (idx + 1), array.length - 2 * idx);
+                addedLeaf.value = true;
+
+                if (isOwnedBy(edit)) {
+                    bitmap |= bit;
+                    array = newArray;
+                    return this;
+                }
+                return new BitmapIndexedNode(edit, bitmap | bit, newArray);
+            }
+
+            final Object keyOrNull = array[2 * idx];
+            final Object valueOrNode = array[2 * idx + 1];
+            if (keyOrNull == null && valueOrNode instanceof Node) {
+                final Node child = ((Node) valueOrNode).put(edit, shift + BITS, hash, key, value, addedLeaf);
+                return child == valueOrNode ? this : withSlot(edit, 2 * idx + 1, child);
+            }
+            if (Objects.equals(key, keyOrNull)) {
+                return value == valueOrNode ? this : withSlot(edit, 2 * idx + 1, value);
+            }
+
+            addedLeaf.value = true;
+            final BitmapIndexedNode result = withSlot(
+                edit,
+                2 * idx + 1,
+                createNode(edit, shift + BITS, keyOrNull, valueOrNode, hash, key, value)
+            );
+            result.array[2 * idx] = null;
+            return result;
+        }
+
+        @Override
+        public Node remove(final int shift, final int hash, final Object key) {
+            final int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            final int idx = index(bit);
+            final Object keyOrNull = array[2 * idx];
+            final Object valueOrNode = array[2 * idx + 1];
+            if (keyOrNull == null && valueOrNode instanceof Node) {
+                final Node child = ((Node) valueOrNode).remove(shift + BITS, hash, key);
+                if (child == valueOrNode) {
+                    return this;
+                }
+                if (child != null) {
+                    return withSlot(null, 2 * idx + 1, child);
+                }
+            }
+            else if (!Objects.equals(key, keyOrNull)) {
+                return this;
+            }
+
+            return bitmap == bit
+                ? null
+                : new BitmapIndexedNode(null, bitmap ^ bit, removePair(array, idx));
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key, final Object notFound) {
+            final int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return notFound;
+            }
+
+            final int idx = index(bit);
+            final Object keyOrNull = array[2 * idx];
+            final Object valueOrNode = array[2 * idx + 1];
+            if (keyOrNull == null && valueOrNode instanceof Node) {
+                return ((Node) valueOrNode).find(shift + BITS, hash, key, notFound);
+            }
+
+            return Objects.equals(key, keyOrNull) ? valueOrNode : notFound;
+        }
+
+        private BitmapIndexedNode withSlot(final Object edit, final int slot, final Object item) {
+            final BitmapIndexedNode result = isOwnedBy(edit)
+                ? this
+                : new BitmapIndexedNode(edit, bitmap, array.clone());
+            result.array[slot] = item;
+            return result;
+        }
+
+        private static Node createNode(
+                final Object edit,
+                final int shift,
+                final Object key1, final Object value1,
+                final int hash2, final Object key2, final Object value2
+        ) {
+            final int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+            }
+
+            final Box ignored = new Box();
+            return EMPTY
+                .put(edit, shift, hash1, key1, value1, ignored)
+                .put(edit, shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+        private final Object[] array;
+
+        private CollisionNode(final int hash, final Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (Objects.equals(key, array[i])) {
+                    return i / 2;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        public Node put(
+                final Object edit,
+                final int shift, final int hash,
+                final Object key, final Object value,
+                final Box addedLeaf
+        ) {
+            if (hash != this.hash) {
+                return new BitmapIndexedNode(edit, bitPos(this.hash, shift), new Object[] { null, this })
+                    .put(edit, shift, hash, key, value, addedLeaf);
+            }
+
+            final int idx = indexOf(key);
+            if (idx >= 0) {
+                if (array[2 * idx + 1] == value) {
+                    return this;
+                }
+
+                final Object[] newArray = array.clone();
+                newArray[2 * idx + 1] = value;
+                return new CollisionNode(hash, newArray);
+            }
+
+            final Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            addedLeaf.value = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        public Node remove(final int shift, final int hash, final Object key) {
+            final int idx = indexOf(key);
+            if (idx < 0) {
+                return this;
+            }
+
+            return array.length == 2
+                ? null
+                : new CollisionNode(hash, removePair(array, idx));
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key, final Object notFound) {
+            final int idx = indexOf(key);
+            return idx >= 0 ? array[2 * idx + 1] : notFound;
+        }
+    }
+
+    private static final class NodeIterator<K, V> implements Iterator<Tuple<K, V>> {
+
+        // Explicit stack of entry arrays and positions so deep tries don't recurse
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Tuple<K, V> nextEntry;
+
+        private NodeIterator(final Node root) {
+            if (root != null) {
+                pushNode(root);
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextEntry != null;
+        }
+
+        @Override
+        public Tuple<K, V> next() {
+            if (nextEntry == null) {
+                throw new NoSuchElementException();
+            }
+
+            final Tuple<K, V> result = nextEntry;
+            advance();
+            return result;
+        }
+
+        private void pushNode(final Node node) {
+            arrays.push(node instanceof BitmapIndexedNode
+                ? ((BitmapIndexedNode) node).array
+                : ((CollisionNode) node).array);
+            positions.push(0);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            nextEntry = null;
+            while (!arrays.isEmpty()) {
+                final Object[] array = arrays.peek();
+                final int pos = positions.pop();
+                if (pos >= array.length) {
+                    arrays.pop();
+                    continue;
+                }
+
+                positions.push(pos + 2);
+                final Object keyOrNull = array[pos];
+                final Object valueOrNode = array[pos + 1];
+                if (keyOrNull == null && valueOrNode instanceof Node) {
+                    pushNode((Node) valueOrNode);
+                }
+                else {
+                    nextEntry = Tuple.create((K) keyOrNull, (V) valueOrNode);
+                    return;
+                }
+            }
+        }
+    }
+}
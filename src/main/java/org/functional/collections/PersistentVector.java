@@ -0,0 +1,359 @@
+package org.functional.collections;
+
+import java.util.*;
+
+public final class PersistentVector<T> implements Iterable<T> {
+
+    // Clojure-style 32-way trie: every node is an Object[WIDTH], leaves hold items, and the
+    // rightmost leaf is kept out of the trie as `tail` so appends are amortized O(1)
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_TAIL = new Object[0];
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, EMPTY_TAIL);
+
+    public static <A> PersistentVector<A> empty() {
+        @SuppressWarnings("unchecked")
+        final PersistentVector<A> empty = (PersistentVector<A>) EMPTY;
+        return empty;
+    }
+
+    @SafeVarargs
+    public static <A> PersistentVector<A> of(final A... items) {
+        final Builder<A> builder = newBuilder();
+        for (final A item: items) {
+            builder.append(item);
+        }
+
+        return builder.build();
+    }
+
+    public static <A> PersistentVector<A> from(final Iterable<A> iterable) {
+        final Builder<A> builder = newBuilder();
+        for (final A item: iterable) {
+            builder.append(item);
+        }
+
+        return builder.build();
+    }
+
+    public static <A> Builder<A> newBuilder() {
+        return new Builder<>();
+    }
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(final int size, final int shift, final Object[] root, final Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean nonEmpty() {
+        return size > 0;
+    }
+
+    public T get(final int index) {
+        checkIndex(index);
+
+        @SuppressWarnings("unchecked")
+        final T item = (T) leafFor(index)[index & MASK];
+        return item;
+    }
+
+    public Optional<T> getOption(final int index) {
+        return index >= 0 && index < size
+            ? Optional.ofNullable(get(index))
+            : Optional.empty();
+    }
+
+    public PersistentVector<T> append(final T item) {
+        if (size - tailOffset() < WIDTH) {
+            final Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = item;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        final Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        }
+        else {
+            newRoot = pushTail(shift, root, tail);
+        }
+
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { item });
+    }
+
+    public PersistentVector<T> update(final int index, final T item) {
+        checkIndex(index);
+
+        if (index >= tailOffset()) {
+            final Object[] newTail = tail.clone();
+            newTail[index & MASK] = item;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+
+        return new PersistentVector<>(size, shift, doUpdate(shift, root, index, item), tail);
+    }
+
+    public PersistentVector<T> dropLast() {
+        if (size <= 1) {
+            return empty();
+        }
+
+        if (size - tailOffset() > 1) {
+            return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+
+        final Object[] newTail = leafFor(size - 2);
+        Object[] newRoot = popTail(shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (shift > BITS && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    public Stream<T> toStream() {
+        return Streams.fromVector(this);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            private int index = 0;
+            private Object[] leaf = size > 0 ? leafFor(0) : EMPTY_TAIL;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public T next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if (index > 0 && (index & MASK) == 0) {
+                    leaf = leafFor(index);
+                }
+
+                @SuppressWarnings("unchecked")
+                final T item = (T) leaf[index & MASK];
+                index++;
+                return item;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PersistentVector) || ((PersistentVector<?>) other).size != size) {
+            return false;
+        }
+
+        final Iterator<?> otherItems = ((PersistentVector<?>) other).iterator();
+        for (final T item: this) {
+            if (!Objects.equals(item, otherItems.next())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (final T item: this) {
+            hash = 31 * hash + Objects.hashCode(item);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (final T item: this) {
+            joiner.add(String.valueOf(item));
+        }
+
+        return joiner.toString();
+    }
+
+    public static final class Builder<A> {
+
+        // Fills leaves in place and assembles the trie bottom-up once, instead of path-copying
+        // on every append
+        private final List<Object[]> leaves = new ArrayList<>();
+        private Object[] leaf = new Object[WIDTH];
+        private int leafSize = 0;
+        private int size = 0;
+        private boolean built = false;
+
+        private Builder() {}
+
+        public Builder<A> append(final A item) {
+            ensureEditable();
+            if (leafSize == WIDTH) {
+                leaves.add(leaf);
+                leaf = new Object[WIDTH];
+                leafSize = 0;
+            }
+
+            leaf[leafSize++] = item;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PersistentVector<A> build() {
+            ensureEditable();
+            built = true;
+
+            if (size == 0) {
+                return empty();
+            }
+
+            final Object[] tail = leafSize == WIDTH ? leaf : Arrays.copyOf(leaf, leafSize);
+            List<Object[]> level = leaves;
+            int shift = BITS;
+            while (level.size() > WIDTH) {
+                final List<Object[]> parents = new ArrayList<>((level.size() + MASK) >>> BITS);
+                for (int from = 0; from < level.size(); from += WIDTH) {
+                    final List<Object[]> children = level.subList(from, Math.min(from + WIDTH, level.size()));
+                    parents.add(children.toArray(new Object[WIDTH]));
+                }
+
+                level = parents;
+                shift += BITS;
+            }
+
+            final Object[] root = level.isEmpty() ? EMPTY_NODE : level.toArray(new Object[WIDTH]);
+            return new PersistentVector<>(size, shift, root, tail);
+        }
+
+        private void ensureEditable() {
+            if (built) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+        }
+    }
+
+    Object[] leafFor(final int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+
+        return node;
+    }
+
+    // Private methods
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private Object[] pushTail(final int level, final Object[] parent, final Object[] tailNode) {
+        final int subIdx = ((size - 1) >>> level) & MASK;
+        final Object[] result = parent.clone();
+        if (level == BITS) {
+            result[subIdx] = tailNode;
+        }
+        else {
+            final Object[] child = (Object[]) parent[subIdx];
+            result[subIdx] = child != null
+                ? pushTail(level - BITS, child, tailNode)
+                : newPath(level - BITS, tailNode);
+        }
+
+        return result;
+    }
+
+    private Object[] popTail(final int level, final Object[] node) {
+        final int subIdx = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            final Object[] newChild = popTail(level - BITS, (Object[]) node[subIdx]);
+            if (newChild == null && subIdx == 0) {
+                return null;
+            }
+
+            final Object[] result = node.clone();
+            result[subIdx] = newChild;
+            return result;
+        }
+        if (subIdx == 0) {
+            return null;
+        }
+
+        final Object[] result = node.clone();
+        result[subIdx] = null;
+        return result;
+    }
+
+    private static Object[] newPath(final int level, final Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+
+        final Object[] result = new Object[WIDTH];
+        result[0] = newPath(level - BITS, node);
+        return result;
+    }
+
+    private static Object[] doUpdate(final int level, final Object[] node, final int index, final Object item) {
+        final Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = item;
+        }
+        else {
+            final int subIdx = (index >>> level) & MASK;
+            result[subIdx] = doUpdate(level - BITS, (Object[]) node[subIdx], index, item);
+        }
+
+        return result;
+    }
+}
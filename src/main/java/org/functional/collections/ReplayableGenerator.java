@@ -0,0 +1,16 @@
+package org.functional.collections;
+
+@FunctionalInterface
+public interface ReplayableGenerator<T> {
+
+    // Pushes items into the sink until the source is exhausted or the sink returns false.
+    // A stream over a generator runs it again from the start for every fold and whenever pull
+    // access needs another chunk, so each run must produce the same sequence. Iterators, I/O
+    // or random sources belong in `Streams.fromIterator` or `Streams.unfold` instead
+    void generate(Sink<T> sink);
+
+    @FunctionalInterface
+    interface Sink<T> {
+        boolean accept(T item);
+    }
+}
@@ -0,0 +1,345 @@
+package org.functional.collections;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+public abstract class SharedStream<T> implements AutoCloseable {
+
+    // There is no default: with either policy a subscriber that falls more than the buffer
+    // behind the fastest one loses items, so callers size the buffer and pick the failure mode.
+    // A lone subscriber reading sequentially never falls behind
+    public enum SlowReaderPolicy {
+        FAIL,
+        SKIP_AHEAD
+    }
+
+    static <A> SharedStream<A> share(final Stream<A> upstream, final int bufferSize, final SlowReaderPolicy policy) {
+        Objects.requireNonNull(policy, "policy");
+        return new RingSharedStream<>(upstream, bufferSize, 0, policy);
+    }
+
+    static <A> SharedStream<A> replay(final Stream<A> upstream, final int count, final SlowReaderPolicy policy) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Replay count must not be negative: " + count);
+        }
+        Objects.requireNonNull(policy, "policy");
+
+        return new RingSharedStream<>(upstream, Math.max(count, 1), count, policy);
+    }
+
+    static <A> SharedStream<A> cacheToDisk(final Stream<A> upstream, final Path path, final Codec<A> codec) {
+        return new DiskSharedStream<>(upstream, path, codec);
+    }
+
+    // Upstream is pulled at most once per element, by whichever subscriber gets ahead first;
+    // subscribers only hold their own nodes, so the shared part is bounded by the subclass
+    private final Object syncObj = new Object();
+    private Stream<T> upstream;
+    private boolean started = false;
+    private boolean exhausted = false;
+    private boolean closed = false;
+    private long produced = 0;
+    private T latest;
+
+    private SharedStream(final Stream<T> upstream) {
+        this.upstream = upstream;
+    }
+
+    public Stream<T> subscribe() {
+        synchronized (syncObj) {
+            return subscriberAt(firstSequence(produced));
+        }
+    }
+
+    public long produced() {
+        synchronized (syncObj) {
+            return produced;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (syncObj) {
+            upstream = null;
+            latest = null;
+            exhausted = true;
+            closed = true;
+            release();
+        }
+    }
+
+    abstract long firstSequence(long produced);
+
+    abstract long readableSequence(long sequence, long produced);
+
+    abstract void store(long sequence, T item);
+
+    abstract T load(long sequence);
+
+    void release() {}
+
+    // Private methods
+
+    private Stream<T> subscriberAt(final long sequence) {
+        return Streams.defer(() -> read(sequence));
+    }
+
+    private Stream<T> read(final long sequence) {
+        synchronized (syncObj) {
+            // Every variant drops its buffer on close, so a lagging subscriber fails instead of
+            // ending early
+            if (closed) {
+                throw new IllegalStateException("Shared stream has been closed");
+            }
+
+            while (sequence >= produced) {
+                if (!pull()) {
+                    return Streams.empty();
+                }
+            }
+
+            final long readable = readableSequence(sequence, produced);
+            final T item = readable == produced - 1 ? latest : load(readable);
+            return Streams.create(item, () -> subscriberAt(readable + 1));
+        }
+    }
+
+    private boolean pull() {
+        if (exhausted) {
+            return false;
+        }
+
+        // The tail is only asked for on the next pull, so upstream never runs ahead of the
+        // fastest subscriber
+        final Stream<T> next = started ? upstream.getTail() : upstream;
+        started = true;
+        upstream = next;
+
+        final T item = next.getHeadOption().orElse(null);
+        if (item == null) {
+            exhausted = true;
+            upstream = null;
+            return false;
+        }
+
+        store(produced, item);
+        latest = item;
+        produced++;
+        return true;
+    }
+
+    private static final class RingSharedStream<T> extends SharedStream<T> {
+
+        private final Object[] ring;
+        private final int replayCount;
+        private final SlowReaderPolicy policy;
+
+        private RingSharedStream(
+                final Stream<T> upstream,
+                final int bufferSize,
+                final int replayCount,
+                final SlowReaderPolicy policy
+        ) {
+            super(upstream);
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+            }
+
+            this.ring = new Object[bufferSize];
+            this.replayCount = replayCount;
+            this.policy = policy;
+        }
+
+        @Override
+        long firstSequence(final long produced) {
+            return Math.max(0, produced - replayCount);
+        }
+
+        @Override
+        long readableSequence(final long sequence, final long produced) {
+            final long oldest = produced - ring.length;
+            if (sequence >= oldest) {
+                return sequence;
+            }
+            if (policy == SlowReaderPolicy.SKIP_AHEAD) {
+                return oldest;
+            }
+
+            throw new IllegalStateException(
+                "Subscriber fell behind by " + (oldest - sequence) + " items of a " + ring.length + " item buffer"
+            );
+        }
+
+        @Override
+        void store(final long sequence, final T item) {
+            ring[(int) (sequence % ring.length)] = item;
+        }
+
+        @Override
+        T load(final long sequence) {
+            @SuppressWarnings("unchecked")
+            final T item = (T) ring[(int) (sequence % ring.length)];
+            return item;
+        }
+
+        @Override
+        void release() {
+            Arrays.fill(ring, null);
+        }
+    }
+
+    private static final class DiskSharedStream<T> extends SharedStream<T> {
+
+        // Items are written once as length-prefixed codec records; subscribers that fall behind
+        // read them back instead of keeping them on the heap. Record offsets go to an index file
+        // next to the cache, one long per item, deleted on close. The scratch buffers
+        // are only used under the shared lock
+        private final FileChannel channel;
+        private final FileChannel index;
+        private final Codec<T> codec;
+        private final ByteBuffer offset = ByteBuffer.allocate(Long.BYTES);
+        private ByteBuffer scratch = ByteBuffer.allocate(256);
+        private long end = 0;
+
+        private DiskSharedStream(final Stream<T> upstream, final Path path, final Codec<T> codec) {
+            super(upstream);
+            this.codec = codec;
+            try {
+                this.channel = FileChannel.open(
+                    path,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE
+                );
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                final Path absolute = path.toAbsolutePath();
+                this.index = FileChannel.open(
+                    Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".idx"),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE
+                );
+            }
+            catch (final IOException e) {
+                closeQuietly(channel);
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        long firstSequence(final long produced) {
+            return 0;
+        }
+
+        @Override
+        long readableSequence(final long sequence, final long produced) {
+            return sequence;
+        }
+
+        @Override
+        void store(final long sequence, final T item) {
+            while (true) {
+                scratch.clear();
+                scratch.position(Integer.BYTES);
+                try {
+                    codec.encode(item, scratch);
+                    break;
+                }
+                catch (final BufferOverflowException e) {
+                    scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+                }
+            }
+            scratch.flip();
+            scratch.putInt(0, scratch.limit() - Integer.BYTES);
+
+            try {
+                while (scratch.hasRemaining()) {
+                    channel.write(scratch, end + scratch.position());
+                }
+                offset.clear();
+                offset.putLong(0, end);
+                while (offset.hasRemaining()) {
+                    index.write(offset, sequence * Long.BYTES + offset.position());
+                }
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            end += scratch.limit();
+        }
+
+        @Override
+        T load(final long sequence) {
+            try {
+                final long record = readOffset(sequence);
+                readFully(Integer.BYTES, record);
+                final int length = scratch.getInt(0);
+                if (length > scratch.capacity()) {
+                    scratch = ByteBuffer.allocate(length);
+                }
+                readFully(length, record + Integer.BYTES);
+                return codec.decode(scratch);
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void release() {
+            try {
+                try {
+                    channel.close();
+                }
+                finally {
+                    index.close();
+                }
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private long readOffset(final long sequence) throws IOException {
+            offset.clear();
+            while (offset.hasRemaining()) {
+                if (index.read(offset, sequence * Long.BYTES + offset.position()) < 0) {
+                    throw new EOFException("Truncated index at item " + sequence);
+                }
+            }
+
+            return offset.getLong(0);
+        }
+
+        private void readFully(final int length, final long position) throws IOException {
+            scratch.clear();
+            scratch.limit(length);
+            while (scratch.hasRemaining()) {
+                if (channel.read(scratch, position + scratch.position()) < 0) {
+                    throw new EOFException("Truncated record at " + position);
+                }
+            }
+            scratch.flip();
+        }
+
+        private static void closeQuietly(final FileChannel channel) {
+            try {
+                channel.close();
+            }
+            catch (final IOException e) {
+                // the failure that got us here is the one worth reporting
+            }
+        }
+    }
+}
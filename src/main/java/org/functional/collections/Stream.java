@@ -4,6 +4,7 @@ import org.functional.Lazy;
 import org.functional.Tuple;
 import org.functional.Unit;
 
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.*;
 
@@ -17,28 +18,50 @@ public interface Stream<T> extends Iterable<T> {
     boolean headIsComputed();
     boolean tailIsComputed();
 
+    default long approxDistinct() {
+        return approxDistinct(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    default long approxDistinct(final int precision) {
+        return collect(Collectors.toHyperLogLog(precision)).estimate();
+    }
+
+    default CountMinSketch<T> approxFrequencies(final double epsilon, final double confidence) {
+        return collect(Collectors.toCountMinSketch(epsilon, confidence));
+    }
+
+    default double[] approxQuantiles(final ToDoubleFunction<T> function, final double... ranks) {
+        return collect(Collectors.toKllSketch(function, KllSketch.DEFAULT_K)).quantiles(ranks);
+    }
+
     default Stream<T> append(final T item) {
-        return getHeadOption()
-            .map(head -> Streams.create(head, () -> getTail().append(item)))
-            .orElse(Streams.create(item, Streams.empty()));
+        return Streams.concat(this, Streams.create(item, Streams.empty()));
     }
 
     default Stream<T> append(final Stream<T> stream) {
-        return getHeadOption()
-            .map(head -> Streams.create(head, () -> getTail().append(stream)))
-            .orElse(stream);
+        return Streams.concat(this, stream);
     }
 
     default Stream<T> append(final Supplier<Stream<T>> getStreamFunc) {
-        return getHeadOption()
-            .map(head -> Streams.create(head, () -> getTail().append(getStreamFunc)))
-            .orElseGet(getStreamFunc);
+        return Streams.concat(this, getStreamFunc);
     }
 
     default Stream<T> append(final Lazy<Stream<T>> lazyStream) {
-        return getHeadOption()
-            .map(head -> Streams.create(head, () -> getTail().append(lazyStream)))
-            .orElse(lazyStream.get());
+        return Streams.concat(this, lazyStream);
+    }
+
+    default SharedStream<T> cacheToDisk(final Path path) {
+        return cacheToDisk(path, Codecs.serialized());
+    }
+
+    default SharedStream<T> cacheToDisk(final Path path, final Codec<T> codec) {
+        return SharedStream.cacheToDisk(this, path, codec);
+    }
+
+    default <B, R> R collect(final Collector<T, B, R> collector) {
+        final long size = knownSize();
+        final B buffer = size >= 0 ? collector.newBuffer(size) : collector.newBuffer();
+        return collector.freeze(foldLeft(buffer, collector::accumulate));
     }
 
     default <B> boolean corresponds(final Stream<B> other) {
@@ -68,11 +91,15 @@ public interface Stream<T> extends Iterable<T> {
     }
 
     default Stream<T> dropWhileIf(final Predicate<T> predicate, final boolean isTrue) {
-        return foldLeftWhile(
-            this,
-            (r, it) -> predicate.test(it) == isTrue,
-            (r, it) -> r.getTail()
-        );
+        Stream<T> curr = this;
+        for (Optional<T> head = curr.getHeadOption(); head.isPresent(); head = curr.getHeadOption()) {
+            if (predicate.test(head.get()) != isTrue) {
+                break;
+            }
+            curr = curr.getTail();
+        }
+
+        return curr;
     }
 
     default boolean exist(final Predicate<T> predicate) {
@@ -84,11 +111,7 @@ public interface Stream<T> extends Iterable<T> {
     }
 
     default boolean existIf(final Predicate<T> predicate, boolean isTrue) {
-        return foldLeftWhile(
-            false,
-            (r, it) -> r != isTrue,
-            (r, it) -> predicate.test(it) == isTrue
-        );
+        return nthIf(0, predicate, isTrue).isPresent();
     }
 
     default Stream<T> filter(final Predicate<T> predicate) {
@@ -111,12 +134,12 @@ public interface Stream<T> extends Iterable<T> {
         return Streams.withFlatMapFunction(this, function);
     }
 
+    default <R> Stream<R> flatMapStream(final Function<T, Stream<R>> function) {
+        return Streams.withFlatMapStreamFunction(this, function);
+    }
+
     default boolean forAll(final Predicate<T> predicate) {
-        return foldLeftWhile(
-            true,
-            (r, it) -> r,
-            (r, it) -> r && predicate.test(it)
-        );
+        return !existIf(predicate, false);
     }
 
     default void foreEach(final Consumer<T> consumer) {
@@ -163,11 +186,11 @@ public interface Stream<T> extends Iterable<T> {
     ) {
         R result = initialValue;
         Stream<T> curr = this;
-        while (
-            curr.getHeadOption().isPresent()
-            && predicate.apply(result, curr.getHeadOption().get())
-        ) {
-            result = function.apply(result, curr.getHeadOption().get());
+        for (Optional<T> head = curr.getHeadOption(); head.isPresent(); head = curr.getHeadOption()) {
+            if (!predicate.apply(result, head.get())) {
+                break;
+            }
+            result = function.apply(result, head.get());
             curr = curr.getTail();
         }
 
@@ -208,10 +231,20 @@ public interface Stream<T> extends Iterable<T> {
         };
     }
 
+    default long knownSize() {
+        return -1;
+    }
+
     default <R> Stream<R> map(final Function<T, R> function) {
         return Streams.withMapFunction(this, function);
     }
 
+    default Optional<T> nth(final int index) {
+        return index >= 0
+            ? drop(index).getHeadOption()
+            : Optional.empty();
+    }
+
     default Optional<T> nth(final int nth, final Predicate<T> predicate) {
         return nthIf(nth, predicate, true);
     }
@@ -225,10 +258,20 @@ public interface Stream<T> extends Iterable<T> {
             final Predicate<T> predicate,
             final boolean isTrue
     ) {
-        return Streams
-            .withFilter(this, predicate, isTrue)
-            .drop(nth)
-            .getHeadOption();
+        int remaining = nth;
+        Stream<T> curr = this;
+        for (Optional<T> head = curr.getHeadOption(); head.isPresent(); head = curr.getHeadOption()) {
+            if (predicate.test(head.get()) == isTrue && remaining-- <= 0) {
+                return head;
+            }
+            curr = curr.getTail();
+        }
+
+        return Optional.empty();
+    }
+
+    default <K> Lanes<T> partitionBy(final Function<T, K> keyFunction, final int lanes) {
+        return Lanes.partition(this, keyFunction, lanes);
     }
 
     default Stream<T> prepend(final T item) {
@@ -239,15 +282,55 @@ public interface Stream<T> extends Iterable<T> {
         return stream.append(this);
     }
 
+    default SharedStream<T> replay(final int count, final SharedStream.SlowReaderPolicy policy) {
+        return SharedStream.replay(this, count, policy);
+    }
+
+    default Stream<T> runningReduce(final BinaryOperator<T> operator) {
+        return Streams.withRunningReduce(this, operator);
+    }
+
+    default Stream<T> runningMin(final Comparator<? super T> comparator) {
+        return runningReduce(BinaryOperator.minBy(comparator));
+    }
+
+    default Stream<T> runningMax(final Comparator<? super T> comparator) {
+        return runningReduce(BinaryOperator.maxBy(comparator));
+    }
+
+    default Stream<Long> runningSumAsLong(final ToLongFunction<T> function) {
+        return Streams.withRunningLongSum(this, function);
+    }
+
+    default Stream<Double> runningSumAsDouble(final ToDoubleFunction<T> function) {
+        return Streams.withRunningDoubleSum(this, function);
+    }
+
+    default <R> Stream<R> scanLeft(final R initialValue, final BiFunction<R, T, R> function) {
+        return Streams.withScanFunction(this, initialValue, function);
+    }
+
+    default SharedStream<T> share(final int bufferSize, final SharedStream.SlowReaderPolicy policy) {
+        return SharedStream.share(this, bufferSize, policy);
+    }
+
     default List<T> take(final int count) {
-        return foldLeftWhile(
-            new ArrayList<>(count),
-            (r, it) -> r.size() < count,
-            (r, it) -> {
-                r.add(it);
-                return r;
+        final long size = knownSize();
+        final int capacity = (int) Math.max(0, Math.min(count, size >= 0 ? size : 16));
+        final Collectors.ArrayBuffer<T> buffer = new Collectors.ArrayBuffer<>(capacity);
+        Stream<T> curr = this;
+        // Stop as soon as count items are buffered, without forcing the next tail or head
+        while (buffer.size() < count) {
+            final Optional<T> head = curr.getHeadOption();
+            if (!head.isPresent()) {
+                break;
             }
-        );
+            buffer.append(head.get());
+            if (buffer.size() < count) {
+                curr = curr.getTail();
+            }
+        }
+        return buffer.toList();
     }
 
     default List<T> takeWhile(final Predicate<T> predicate) {
@@ -260,13 +343,33 @@ public interface Stream<T> extends Iterable<T> {
 
     default List<T> takeWhileIf(final Predicate<T> predicate, final boolean isTrue) {
         return foldLeftWhile(
-            new LinkedList<>(),
+            new Collectors.ArrayBuffer<T>(),
             (r, it) -> predicate.test(it) == isTrue,
-            (r, it) -> {
-                r.addLast(it);
-                return r;
-            }
-        );
+            Collectors.ArrayBuffer::append
+        ).toList();
+    }
+
+    default ColumnarBatch<T> toColumnar(final ColumnarBatch.Schema<T> schema) {
+        return ColumnarBatch.from(this, schema);
+    }
+
+    default OffHeapStore<T> toOffHeap(final Codec<T> codec) {
+        return Streams.offHeap(this, codec);
+    }
+
+    default OffHeapStore<T> toOffHeap(final Codec<T> codec, final Path spillDirectory) {
+        return Streams.offHeap(this, codec, spillDirectory);
+    }
+
+    default PersistentVector<T> toVector() {
+        return collect(Collectors.toVector());
+    }
+
+    default <K, V> PersistentHashMap<K, V> toHashMap(
+            final Function<T, K> keyFunction,
+            final Function<T, V> valueFunction
+    ) {
+        return collect(Collectors.toHashMap(keyFunction, valueFunction));
     }
 
     default <W> Stream<Tuple<T, W>> zip(Stream<W> other) {
@@ -274,6 +377,6 @@ public interface Stream<T> extends Iterable<T> {
     }
 
     default Stream<Tuple<T, Integer>> zipWithIndex() {
-        return Streams.zipStreams(this, Streams.startingAt(0));
+        return Streams.zipStreams(this, Streams.indices());
     }
 }
@@ -4,10 +4,10 @@ import org.functional.Lazy;
 import org.functional.Tuple;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.function.Supplier;
+import java.util.function.*;
 
 final class Streams {
 
@@ -34,6 +34,22 @@ final class Streams {
         return new LazyTailStream<>(head, getTailFunc);
     }
 
+    public static <A> Stream<A> defer(final Supplier<Stream<A>> getStreamFunc) {
+        return new DeferredStream<>(getStreamFunc);
+    }
+
+    public static <A> Stream<A> concat(final Stream<A> first, final Stream<A> second) {
+        return concatSegment(first, second);
+    }
+
+    public static <A> Stream<A> concat(final Stream<A> first, final Supplier<Stream<A>> getSecondFunc) {
+        return concatSegment(first, getSecondFunc);
+    }
+
+    public static <A> Stream<A> concat(final Stream<A> first, final Lazy<Stream<A>> lazySecond) {
+        return concatSegment(first, lazySecond);
+    }
+
     public static <A> Stream<A> withFilter(
             final Stream<A> baseStream,
             final Predicate<A> predicate,
@@ -58,10 +74,54 @@ final class Streams {
             final Function<A, ? extends Iterable<R>> mapFunction
     ) {
         return baseStream.nonEmpty()
-            ? new FlatMappedStream<>(baseStream, mapFunction)
+            ? new DeferredStream<>(() -> {
+                final Iterable<R> first = mapFunction.apply(baseStream.getHeadOption().get());
+                return nextFlatMapped(baseStream, iteratorOf(first), mapFunction);
+            })
             : empty();
     }
 
+    public static <A, R> Stream<R> withFlatMapStreamFunction(
+            final Stream<A> baseStream,
+            final Function<A, Stream<R>> mapFunction
+    ) {
+        return baseStream.nonEmpty()
+            ? new DeferredStream<>(() -> {
+                final Stream<R> first = mapFunction.apply(baseStream.getHeadOption().get());
+                return nextStreamFlatMapped(baseStream, first, mapFunction);
+            })
+            : empty();
+    }
+
+    public static <A, R> Stream<R> withScanFunction(
+            final Stream<A> baseStream,
+            final R initialValue,
+            final BiFunction<R, A, R> scanFunction
+    ) {
+        return new ScannedStream<>(initialValue, baseStream, false, scanFunction);
+    }
+
+    public static <A> Stream<A> withRunningReduce(final Stream<A> baseStream, final BinaryOperator<A> operator) {
+        return baseStream
+            .getHeadOption()
+            .<Stream<A>>map(head -> new ScannedStream<>(head, baseStream, true, operator::apply))
+            .orElse(empty());
+    }
+
+    public static <A> Stream<Long> withRunningLongSum(final Stream<A> baseStream, final ToLongFunction<A> function) {
+        return baseStream
+            .getHeadOption()
+            .<Stream<Long>>map(head -> new LongSumStream<>(function.applyAsLong(head), baseStream, function))
+            .orElse(empty());
+    }
+
+    public static <A> Stream<Double> withRunningDoubleSum(final Stream<A> baseStream, final ToDoubleFunction<A> function) {
+        return baseStream
+            .getHeadOption()
+            .<Stream<Double>>map(head -> new DoubleSumStream<>(function.applyAsDouble(head), baseStream, function))
+            .orElse(empty());
+    }
+
     public static <A, B> Stream<Tuple<A, B>> zipStreams(
             final Stream<A> aStream,
             final Stream<B> bStream
@@ -82,12 +142,66 @@ final class Streams {
     }
 
     public static <A> Stream<A> from(final Iterable<A> iterable) {
-        StreamBuilder<A> builder = newBuilder();
-        for (final A item: iterable) {
-            builder = builder.append(item);
+        final List<A> items = Collectors.<A>toImmutableList().collect(iterable);
+
+        Stream<A> stream = empty();
+        for (int idx = items.size() - 1; idx >= 0; idx--) {
+            stream = create(items.get(idx), stream);
+        }
+
+        return stream;
+    }
+
+    public static <A> Stream<A> fromIterator(final Iterator<A> iterator) {
+        return iterator.hasNext()
+            ? new IteratorStream<>(iterator.next(), iterator)
+            : empty();
+    }
+
+    public static <A> Stream<A> fromVector(final PersistentVector<A> vector) {
+        return vector.nonEmpty()
+            ? new VectorStream<>(vector, 0, vector.leafFor(0))
+            : empty();
+    }
+
+    public static Stream<Integer> range(final int from, final int to) {
+        return range(from, to, 1);
+    }
+
+    public static Stream<Integer> range(final int from, final int to, final int step) {
+        return longRange(from, to, step, value -> (int) value);
+    }
+
+    public static Stream<Long> range(final long from, final long to) {
+        return range(from, to, 1L);
+    }
+
+    public static Stream<Long> range(final long from, final long to, final long step) {
+        return longRange(from, to, step, Long::valueOf);
+    }
+
+    public static Stream<BigInteger> range(final BigInteger from, final BigInteger to) {
+        return range(from, to, BigInteger.ONE);
+    }
+
+    public static Stream<BigInteger> range(final BigInteger from, final BigInteger to, final BigInteger step) {
+        if (step.signum() == 0) {
+            throw new IllegalArgumentException("step must not be zero");
+        }
+
+        final BigInteger distance = step.signum() > 0 ? to.subtract(from) : from.subtract(to);
+        if (distance.signum() <= 0) {
+            return empty();
         }
 
-        return builder.build();
+        final BigInteger count = distance.subtract(BigInteger.ONE).divide(step.abs()).add(BigInteger.ONE);
+        return new BigIntegerRangeStream(from, count, step);
+    }
+
+    // Int indices from zero with a known size; reading one past Integer.MAX_VALUE throws
+    // instead of wrapping around or ending the stream early
+    public static Stream<Integer> indices() {
+        return longRange(0, Long.MAX_VALUE, 1, Math::toIntExact);
     }
 
     public static Stream<Integer> startingAt(final int first) {
@@ -99,21 +213,101 @@ final class Streams {
     }
 
     public static <A> Stream<A> repeat(final A initial, Function<A, A> f) {
-        return create(initial, () -> repeat(f.apply(initial), f));
+        return new RepeatStream<>(initial, f);
+    }
+
+    public static <S, A> Stream<A> unfold(final S state, final Function<S, Optional<Tuple<A, S>>> step) {
+        return step
+            .apply(state)
+            .<Stream<A>>map(next -> new UnfoldStream<>(next.getItem1(), next.getItem2(), step))
+            .orElse(empty());
+    }
+
+    public static <A> Stream<A> generateReplayable(final ReplayableGenerator<A> generator) {
+        return new GeneratedStream<>(generator);
+    }
+
+    public static <A> OffHeapStore<A> offHeap(final Stream<A> stream, final Codec<A> codec) {
+        return OffHeapStore.from(stream, codec, OffHeapStore.DEFAULT_SEGMENT_SIZE, null);
+    }
+
+    public static <A> OffHeapStore<A> offHeap(final Stream<A> stream, final Codec<A> codec, final Path spillDirectory) {
+        return OffHeapStore.from(stream, codec, OffHeapStore.DEFAULT_SEGMENT_SIZE, spillDirectory);
+    }
+
+    public static <A> Stream<A> fromOffHeap(
+            final OffHeapStore<A> store,
+            final int segmentIndex,
+            final int offset,
+            final long remaining
+    ) {
+        if (remaining <= 0) {
+            return empty();
+        }
+
+        final ByteBuffer segment = store.segment(segmentIndex);
+        if (offset >= segment.limit()) {
+            return fromOffHeap(store, segmentIndex + 1, 0, remaining);
+        }
+
+        final ByteBuffer view = segment.duplicate();
+        view.position(offset);
+        final A head = store.codec().decode(view);
+        return new OffHeapStream<>(head, store, segmentIndex, view.position(), remaining);
+    }
+
+    @SafeVarargs
+    public static <A> Stream<A> mergeSorted(final Comparator<? super A> comparator, final Stream<A>... streams) {
+        final List<Stream<A>> list = new ArrayList<>(streams.length);
+        for (final Stream<A> stream: streams) {
+            list.add(stream);
+        }
+
+        return mergeSorted(comparator, list);
+    }
+
+    public static <A> Stream<A> mergeSorted(final Comparator<? super A> comparator, final Iterable<Stream<A>> streams) {
+        return defer(() -> fromIterator(new MergeSortedIterator<>(comparator, streams)));
+    }
+
+    @SafeVarargs
+    public static <A> Stream<A> interleave(final Stream<A>... streams) {
+        final List<Stream<A>> list = new ArrayList<>(streams.length);
+        for (final Stream<A> stream: streams) {
+            list.add(stream);
+        }
+
+        return interleave(list);
+    }
+
+    public static <A> Stream<A> interleave(final Iterable<Stream<A>> streams) {
+        return defer(() -> fromIterator(new RoundRobinIterator<>(streams, true)));
+    }
+
+    @SafeVarargs
+    public static <A> Stream<A> roundRobin(final Stream<A>... streams) {
+        final List<Stream<A>> list = new ArrayList<>(streams.length);
+        for (final Stream<A> stream: streams) {
+            list.add(stream);
+        }
+
+        return roundRobin(list);
+    }
+
+    public static <A> Stream<A> roundRobin(final Iterable<Stream<A>> streams) {
+        return defer(() -> fromIterator(new RoundRobinIterator<>(streams, false)));
     }
 
     public static class StreamBuilder<A> {
 
-        private final Lazy<Stream<A>> lazyBuiltStream;
+        private final A rear;
+        private final StreamBuilder<A> init;
+        private final Object syncObj = new Object();
+        private volatile Stream<A> builtStream;
 
         private StreamBuilder(final A rear, final StreamBuilder<A> init) {
-            this.lazyBuiltStream = Lazy.of(() -> {
-                if (init != null) {
-                    create(rear, init.build());
-                }
-
-                return empty();
-            });
+            this.rear = rear;
+            this.init = init;
         }
 
         private StreamBuilder() {
@@ -125,8 +319,156 @@ final class Streams {
         }
 
         public Stream<A> build() {
-            return lazyBuiltStream.get();
+            Stream<A> result = builtStream;
+            if (result == null) {
+                synchronized (syncObj) {
+                    result = builtStream;
+                    if (result == null) {
+                        result = buildStream();
+                        builtStream = result;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        private Stream<A> buildStream() {
+            Stream<A> stream = empty();
+            for (StreamBuilder<A> builder = this; builder.init != null; builder = builder.init) {
+                stream = create(builder.rear, stream);
+            }
+
+            return stream;
+        }
+    }
+
+    // Private methods
+
+    private static <A> Stream<A> longRange(
+            final long from,
+            final long to,
+            final long step,
+            final LongFunction<A> box
+    ) {
+        if (step == 0) {
+            throw new IllegalArgumentException("step must not be zero");
+        }
+        if (step > 0 ? from >= to : from <= to) {
+            return empty();
+        }
+
+        // Differences and counts are unsigned so ranges spanning the whole long domain still work
+        final long count = step > 0
+            ? Long.divideUnsigned(to - from - 1, step) + 1
+            : Long.divideUnsigned(from - to - 1, -step) + 1;
+        return new LongRangeStream<>(from, count, step, box);
+    }
+
+    private static <A> Stream<A> concatSegment(final Stream<A> first, final Object segment) {
+        return first instanceof ConcatStream
+            ? ((ConcatStream<A>) first).withSegment(segment)
+            : normalizeConcat(first, PersistentVector.empty().append(segment), 0);
+    }
+
+    // Skips exhausted segments in a loop, so long append chains never nest lazy tails
+    private static <A> Stream<A> normalizeConcat(
+            final Stream<A> segment,
+            final PersistentVector<Object> pending,
+            final int offset
+    ) {
+        Stream<A> current = segment;
+        PersistentVector<Object> rest = pending;
+        int next = offset;
+        while (current.isEmpty()) {
+            if (next >= rest.size()) {
+                return empty();
+            }
+
+            current = resolveSegment(rest.get(next));
+            rest = rest.update(next, null);
+            next++;
+        }
+
+        return next < rest.size()
+            ? new ConcatStream<>(current, rest, next)
+            : current;
+    }
+
+    // Both flatMap cursors skip empty inner sources in a loop rather than through nested tails.
+    // `outer` is the node whose head produced `inner`; its tail is only pulled once `inner` runs out
+    private static <A, R> Stream<R> nextFlatMapped(
+            final Stream<A> outer,
+            final Iterator<? extends R> inner,
+            final Function<A, ? extends Iterable<R>> mapFunction
+    ) {
+        Stream<A> curr = outer;
+        Iterator<? extends R> currInner = inner;
+        while (!currInner.hasNext()) {
+            curr = curr.getTail();
+            final Optional<A> head = curr.getHeadOption();
+            if (!head.isPresent()) {
+                return empty();
+            }
+
+            currInner = iteratorOf(mapFunction.apply(head.get()));
+        }
+
+        return new IterableCursorStream<>(currInner.next(), currInner, curr, mapFunction);
+    }
+
+    // A null iterable counts as empty, as it always has for flatMap
+    private static <A> Iterator<A> iteratorOf(final Iterable<A> iterable) {
+        return iterable != null ? iterable.iterator() : Collections.emptyIterator();
+    }
+
+    private static <A, R> Stream<R> nextStreamFlatMapped(
+            final Stream<A> outer,
+            final Stream<R> inner,
+            final Function<A, Stream<R>> mapFunction
+    ) {
+        Stream<A> curr = outer;
+        Stream<R> currInner = inner;
+        while (currInner.isEmpty()) {
+            curr = curr.getTail();
+            final Optional<A> head = curr.getHeadOption();
+            if (!head.isPresent()) {
+                return empty();
+            }
+
+            currInner = mapFunction.apply(head.get());
+        }
+
+        return new StreamCursorStream<>(currInner, curr, mapFunction);
+    }
+
+    private static <A> Stream<A> generateChunk(final ReplayableGenerator<A> generator, final long skip, final int size) {
+        final Collectors.ArrayBuffer<A> buffer = new Collectors.ArrayBuffer<>(size);
+        final long[] seen = { 0 };
+        generator.generate(item -> {
+            if (seen[0]++ < skip) {
+                return true;
+            }
+
+            buffer.append(item);
+            return buffer.size() < size;
+        });
+
+        return buffer.size() > 0
+            ? new ChunkStream<>(buffer.toList(), 0, generator, skip + buffer.size(), buffer.size() < size)
+            : empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> Stream<A> resolveSegment(final Object segment) {
+        if (segment instanceof Stream) {
+            return (Stream<A>) segment;
+        }
+        if (segment instanceof Lazy) {
+            return ((Lazy<Stream<A>>) segment).get();
         }
+
+        return ((Supplier<Stream<A>>) segment).get();
     }
 
     // Private types
@@ -150,26 +492,28 @@ final class Streams {
             final boolean isFirstItem
         ) {
             final String unknownTerm = "...";
-            if (stream.headIsComputed()) {
-                stream
-                    .getHeadOption()
-                    .ifPresent(head -> {
-                        addSeparatorIfNeeded(sb, isFirstItem);
-                        sb.append(head.toString());
+            Stream<?> curr = stream;
+            boolean isFirst = isFirstItem;
+            while (curr.headIsComputed()) {
+                final Optional<?> head = curr.getHeadOption();
+                if (!head.isPresent()) {
+                    return;
+                }
 
-                        if (stream.tailIsComputed()) {
-                            addItemsString(stream.getTail(), sb, false);
-                        }
-                        else {
-                            addSeparatorIfNeeded(sb, false);
-                            sb.append(unknownTerm);
-                        }
-                    });
-            }
-            else {
-                addSeparatorIfNeeded(sb, isFirstItem);
-                sb.append(unknownTerm);
+                addSeparatorIfNeeded(sb, isFirst);
+                sb.append(head.get().toString());
+                if (!curr.tailIsComputed()) {
+                    addSeparatorIfNeeded(sb, false);
+                    sb.append(unknownTerm);
+                    return;
+                }
+
+                curr = curr.getTail();
+                isFirst = false;
             }
+
+            addSeparatorIfNeeded(sb, isFirst);
+            sb.append(unknownTerm);
         }
 
         private static void addSeparatorIfNeeded(final StringBuilder sb, final boolean isFirstItem) {
@@ -193,6 +537,11 @@ final class Streams {
             return this;
         }
 
+        @Override
+        public long knownSize() {
+            return 0;
+        }
+
         @Override
         public boolean headIsComputed() {
             return true;
@@ -223,6 +572,100 @@ final class Streams {
         }
     }
 
+    private static abstract class MemoizedTailStream<T> extends NonEmptyStream<T> {
+
+        // Memoizes the tail in the node itself rather than through a Lazy, which saves the
+        // Lazy and the supplier lambda on every element. The lock stays private, as in Lazy,
+        // since nodes are handed out and callers may synchronize on them
+        private final Object syncObj = new Object();
+        private volatile Stream<T> tail;
+
+        protected abstract Stream<T> computeTail();
+
+        @Override
+        public final Stream<T> getTail() {
+            Stream<T> result = tail;
+            if (result == null) {
+                synchronized (syncObj) {
+                    result = tail;
+                    if (result == null) {
+                        result = computeTail();
+                        tail = result;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public final boolean tailIsComputed() {
+            return tail != null;
+        }
+    }
+
+    private static abstract class MemoizedStream<T> implements Stream<T> {
+
+        // Operator nodes memoize head and tail in the node itself. Going through Lazy cost two
+        // Lazy instances and two capturing lambdas per element, and every lambda shape is one
+        // more class to spin up the first time a short-lived process touches the operator.
+        // Head and tail share one private lock, which subclasses rely on for their own state
+        private final Object syncObj = new Object();
+        private volatile Optional<T> head;
+        private volatile Stream<T> tail;
+
+        protected abstract Optional<T> computeHead();
+
+        protected abstract Stream<T> computeTail();
+
+        @Override
+        public final Optional<T> getHeadOption() {
+            Optional<T> result = head;
+            if (result == null) {
+                synchronized (syncObj) {
+                    result = head;
+                    if (result == null) {
+                        result = computeHead();
+                        head = result;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public final Stream<T> getTail() {
+            Stream<T> result = tail;
+            if (result == null) {
+                synchronized (syncObj) {
+                    result = tail;
+                    if (result == null) {
+                        result = computeTail();
+                        tail = result;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean headIsComputed() {
+            return head != null;
+        }
+
+        @Override
+        public boolean tailIsComputed() {
+            return tail != null;
+        }
+
+        @Override
+        public String toString() {
+            return StreamStringUtil.toString(this);
+        }
+    }
+
     private static final class ConStream<T> extends NonEmptyStream<T> {
 
         private final T head;
@@ -254,18 +697,14 @@ final class Streams {
         }
     }
 
-    private static final class LazyTailStream<T> extends NonEmptyStream<T> {
+    private static final class LazyTailStream<T> extends MemoizedTailStream<T> {
 
         private final T head;
-        private final Lazy<Stream<T>> lazyTail;
+        private Supplier<Stream<T>> getTailFunc;
 
         private LazyTailStream(final T head, final Supplier<Stream<T>> getTailFunc) {
-            this(head, Lazy.of(getTailFunc));
-        }
-
-        private LazyTailStream(final T head, final Lazy<Stream<T>> lazyTail) {
             this.head = head;
-            this.lazyTail = lazyTail;
+            this.getTailFunc = getTailFunc;
         }
 
         @Override
@@ -279,148 +718,811 @@ final class Streams {
         }
 
         @Override
-        public Stream<T> getTail() {
-            return lazyTail.get();
-        }
-
-        @Override
-        public boolean tailIsComputed() {
-            return lazyTail.getIfComputed().isPresent();
+        protected Stream<T> computeTail() {
+            final Stream<T> tail = getTailFunc.get();
+            getTailFunc = null;
+            return tail;
         }
     }
 
-    private static final class FilteredStream<T> implements Stream<T> {
+    private static final class ConcatStream<T> extends MemoizedTailStream<T> {
 
-        private final Lazy<Optional<T>> lazyHead;
-        private final Lazy<Stream<T>> lazyTail;
+        // `segment` is never empty; `pending` holds the Streams, Suppliers or Lazies appended
+        // after it, starting at `offset`. Consumed slots are cleared so they can be collected
+        private final Stream<T> segment;
+        private final PersistentVector<Object> pending;
+        private final int offset;
 
-        private FilteredStream(final Stream<T> baseStream, final Predicate<T> predicate, final boolean isTrue) {
-
-            final Lazy<Stream<T>> streamWithFirstMatch = Lazy.of(() ->
-                baseStream.foldLeftWhile(
-                    baseStream,
-                    (r, it) -> predicate.test(it) != isTrue,
-                    (r, it) -> r.getTail()
-                )
-            );
+        private ConcatStream(final Stream<T> segment, final PersistentVector<Object> pending, final int offset) {
+            this.segment = segment;
+            this.pending = pending;
+            this.offset = offset;
+        }
 
-            lazyHead = Lazy.of(() -> streamWithFirstMatch.get().getHeadOption());
-            lazyTail = Lazy.of(() -> withFilter(streamWithFirstMatch.get().getTail(), predicate, isTrue));
+        private ConcatStream<T> withSegment(final Object next) {
+            return new ConcatStream<>(segment, pending.append(next), offset);
         }
 
         @Override
-        public Optional<T> getHeadOption() {
-            return lazyHead.get();
+        public T getHead() {
+            return getHeadOption().orElse(null);
         }
 
         @Override
-        public Stream<T> getTail() {
-            return lazyTail.get();
+        public Optional<T> getHeadOption() {
+            return segment.getHeadOption();
         }
 
         @Override
-        public boolean headIsComputed() {
-            return lazyHead.getIfComputed().isPresent();
+        protected Stream<T> computeTail() {
+            return normalizeConcat(segment.getTail(), pending, offset);
         }
 
         @Override
-        public boolean tailIsComputed() {
-            return lazyTail.getIfComputed().isPresent();
+        public Stream<T> append(final T item) {
+            return withSegment(create(item, empty()));
         }
 
         @Override
-        public String toString() {
-            return StreamStringUtil.toString(this);
+        public Stream<T> append(final Stream<T> stream) {
+            return withSegment(stream);
         }
-    }
 
-    private static final class MappedStream<T, R> implements Stream<R> {
-
-        private final Lazy<Optional<R>> lazyHead;
-        private final Lazy<Stream<R>> lazyTail;
-
-        private MappedStream(final Stream<T> baseStream, final Function<T, R> mapFunction) {
-            this.lazyHead = Lazy.of(() -> baseStream.getHeadOption().map(mapFunction));
-            lazyTail = Lazy.of(() -> withMapFunction(baseStream.getTail(), mapFunction));
+        @Override
+        public Stream<T> append(final Supplier<Stream<T>> getStreamFunc) {
+            return withSegment(getStreamFunc);
         }
 
         @Override
-        public Optional<R> getHeadOption() {
-            return lazyHead.get();
+        public Stream<T> append(final Lazy<Stream<T>> lazyStream) {
+            return withSegment(lazyStream);
         }
+    }
 
-        @Override
-        public Stream<R> getTail() {
-            return lazyTail.get();
+    private static final class IteratorStream<T> extends MemoizedTailStream<T> {
+
+        // Tails are memoized and forced one at a time, so the shared iterator is only ever
+        // advanced in order, once per node
+        private final T head;
+        private final Iterator<T> iterator;
+
+        private IteratorStream(final T head, final Iterator<T> iterator) {
+            this.head = head;
+            this.iterator = iterator;
         }
 
         @Override
-        public boolean headIsComputed() {
-            return lazyHead.getIfComputed().isPresent();
+        public T getHead() {
+            return head;
         }
 
         @Override
-        public boolean tailIsComputed() {
-            return lazyTail.getIfComputed().isPresent();
+        public Optional<T> getHeadOption() {
+            return Optional.ofNullable(head);
         }
 
         @Override
-        public String toString() {
-            return StreamStringUtil.toString(this);
+        protected Stream<T> computeTail() {
+            return fromIterator(iterator);
         }
     }
 
-    private static final class FlatMappedStream<T, R> implements Stream<R> {
+    private static final class VectorStream<T> extends NonEmptyStream<T> {
 
-        private final Lazy<Optional<R>> lazyHead;
-        private final Lazy<Stream<R>> lazyTail;
+        private final PersistentVector<T> vector;
+        private final int index;
+        private final Object[] leaf;
 
-        private FlatMappedStream(final Stream<T> baseStream, final Function<T, ? extends Iterable<R>> mapFunction) {
-            final Lazy<Stream<R>> lazyFirstStream = Lazy.of(() -> {
-                final Iterable<R> firstIterable = baseStream.getHeadOption()
-                    .<Iterable<R>>map(mapFunction)
-                    .orElse(Collections.emptyList());
-
-                return from(firstIterable);
-            });
-
-            lazyHead = Lazy.of(() -> lazyFirstStream.get().getHeadOption());
-            lazyTail = Lazy.of(() ->
-                lazyFirstStream.get()
-                    .getTail()
-                    .append(() -> withFlatMapFunction(baseStream.getTail(), mapFunction))
-            );
+        private VectorStream(final PersistentVector<T> vector, final int index, final Object[] leaf) {
+            this.vector = vector;
+            this.index = index;
+            this.leaf = leaf;
         }
 
         @Override
-        public Optional<R> getHeadOption() {
-            return lazyHead.get();
+        public T getHead() {
+            @SuppressWarnings("unchecked")
+            final T head = (T) leaf[index & 31];
+            return head;
         }
 
         @Override
-        public Stream<R> getTail() {
-            return lazyTail.get();
+        public Optional<T> getHeadOption() {
+            return Optional.ofNullable(getHead());
         }
 
         @Override
-        public boolean headIsComputed() {
-            return lazyHead.getIfComputed().isPresent();
+        public Stream<T> getTail() {
+            return drop(1);
         }
 
         @Override
         public boolean tailIsComputed() {
-            return lazyTail.getIfComputed().isPresent();
+            return true;
         }
 
         @Override
-        public String toString() {
-            return StreamStringUtil.toString(this);
+        public long knownSize() {
+            return vector.size() - index;
+        }
+
+        @Override
+        public Stream<T> drop(final int count) {
+            final int next = index + Math.max(count, 0);
+            if (next >= vector.size() || next < 0) {
+                return empty();
+            }
+
+            return (next >>> 5) == (index >>> 5)
+                ? new VectorStream<>(vector, next, leaf)
+                : new VectorStream<>(vector, next, vector.leafFor(next));
         }
     }
 
-    private static final class ZippedStream<A, B> implements Stream<Tuple<A, B>> {
+    private static final class RepeatStream<T> extends MemoizedTailStream<T> {
 
-        private final Stream<A> aStream;
+        private final T head;
+        private final Function<T, T> f;
+
+        private RepeatStream(final T head, final Function<T, T> f) {
+            this.head = head;
+            this.f = f;
+        }
+
+        @Override
+        public T getHead() {
+            return head;
+        }
+
+        @Override
+        public Optional<T> getHeadOption() {
+            return Optional.ofNullable(head);
+        }
+
+        @Override
+        protected Stream<T> computeTail() {
+            return repeat(f.apply(head), f);
+        }
+
+        // Folds follow the tails that are already memoized, so `f` never runs twice for the
+        // same item, then drive `f` in a loop without building nodes
+        @Override
+        public <R> R foldLeftWhile(
+                final R initialValue,
+                final BiFunction<R, T, Boolean> predicate,
+                final BiFunction<R, T, R> function
+        ) {
+            R result = initialValue;
+            RepeatStream<T> node = this;
+            while (node.tailIsComputed()) {
+                if (node.head == null || !predicate.apply(result, node.head)) {
+                    return result;
+                }
+                result = function.apply(result, node.head);
+
+                final Stream<T> tail = node.getTail();
+                if (!(tail instanceof RepeatStream)) {
+                    return tail.foldLeftWhile(result, predicate, function);
+                }
+                node = (RepeatStream<T>) tail;
+            }
+
+            T curr = node.head;
+            while (curr != null && predicate.apply(result, curr)) {
+                result = function.apply(result, curr);
+                curr = f.apply(curr);
+            }
+
+            return result;
+        }
+    }
+
+    private static final class UnfoldStream<S, T> extends MemoizedTailStream<T> {
+
+        private final T head;
+        private final S state;
+        private final Function<S, Optional<Tuple<T, S>>> step;
+
+        private UnfoldStream(final T head, final S state, final Function<S, Optional<Tuple<T, S>>> step) {
+            this.head = head;
+            this.state = state;
+            this.step = step;
+        }
+
+        @Override
+        public T getHead() {
+            return head;
+        }
+
+        @Override
+        public Optional<T> getHeadOption() {
+            return Optional.ofNullable(head);
+        }
+
+        @Override
+        protected Stream<T> computeTail() {
+            return unfold(state, step);
+        }
+
+        // Memoized tails are followed first, so `step` never runs twice for the same state.
+        // Past them, the Optional and Tuple from `step` don't escape the loop, so once inlined
+        // the JIT can scalar-replace them
+        @Override
+        public <R> R foldLeftWhile(
+                final R initialValue,
+                final BiFunction<R, T, Boolean> predicate,
+                final BiFunction<R, T, R> function
+        ) {
+            R result = initialValue;
+            UnfoldStream<S, T> node = this;
+            while (node.tailIsComputed()) {
+                if (node.head == null || !predicate.apply(result, node.head)) {
+                    return result;
+                }
+                result = function.apply(result, node.head);
+
+                final Stream<T> tail = node.getTail();
+                if (!(tail instanceof UnfoldStream)) {
+                    return tail.foldLeftWhile(result, predicate, function);
+                }
+                @SuppressWarnings("unchecked")
+                final UnfoldStream<S, T> next = (UnfoldStream<S, T>) tail;
+                node = next;
+            }
+
+            T curr = node.head;
+            S currState = node.state;
+            while (curr != null && predicate.apply(result, curr)) {
+                result = function.apply(result, curr);
+
+                final Optional<Tuple<T, S>> next = step.apply(currState);
+                if (!next.isPresent()) {
+                    break;
+                }
+                curr = next.get().getItem1();
+                currState = next.get().getItem2();
+            }
+
+            return result;
+        }
+    }
+
+    private static final class GeneratedStream<T> implements Stream<T> {
+
+        private static final int FIRST_CHUNK_SIZE = 16;
+
+        // Pull access materializes the generator in chunks of doubling size, re-running it and
+        // skipping what earlier chunks already hold, which stays O(n) overall. Folds push
+        // straight through the generator and build no nodes, unless pull access has already
+        // materialized chunks, which are then walked instead of running the generator again
+        private final ReplayableGenerator<T> generator;
+        private final Lazy<Stream<T>> lazyFirstChunk;
+
+        private GeneratedStream(final ReplayableGenerator<T> generator) {
+            this.generator = generator;
+            this.lazyFirstChunk = Lazy.of(() -> generateChunk(generator, 0, FIRST_CHUNK_SIZE));
+        }
+
+        @Override
+        public Optional<T> getHeadOption() {
+            return lazyFirstChunk.get().getHeadOption();
+        }
+
+        @Override
+        public Stream<T> getTail() {
+            return lazyFirstChunk.get().getTail();
+        }
+
+        @Override
+        public boolean headIsComputed() {
+            return lazyFirstChunk.getIfComputed().isPresent();
+        }
+
+        @Override
+        public boolean tailIsComputed() {
+            return lazyFirstChunk.getIfComputed().map(Stream::tailIsComputed).orElse(false);
+        }
+
+        @Override
+        public <R> R foldLeftWhile(
+                final R initialValue,
+                final BiFunction<R, T, Boolean> predicate,
+                final BiFunction<R, T, R> function
+        ) {
+            if (headIsComputed()) {
+                return lazyFirstChunk.get().foldLeftWhile(initialValue, predicate, function);
+            }
+
+            final FoldState<R> state = new FoldState<>(initialValue);
+            generator.generate(item -> {
+                if (item == null || !predicate.apply(state.result, item)) {
+                    return false;
+                }
+
+                state.result = function.apply(state.result, item);
+                return true;
+            });
+
+            return state.result;
+        }
+
+        @Override
+        public String toString() {
+            return StreamStringUtil.toString(this);
+        }
+
+        private static final class FoldState<R> {
+
+            private R result;
+
+            private FoldState(final R result) {
+                this.result = result;
+            }
+        }
+    }
+
+    private static final class ChunkStream<T> extends MemoizedTailStream<T> {
+
+        private final List<T> chunk;
+        private final int index;
+        private final ReplayableGenerator<T> generator;
+        private final long chunkEnd;
+        private final boolean isLastChunk;
+
+        private ChunkStream(
+                final List<T> chunk,
+                final int index,
+                final ReplayableGenerator<T> generator,
+                final long chunkEnd,
+                final boolean isLastChunk
+        ) {
+            this.chunk = chunk;
+            this.index = index;
+            this.generator = generator;
+            this.chunkEnd = chunkEnd;
+            this.isLastChunk = isLastChunk;
+        }
+
+        @Override
+        public T getHead() {
+            return chunk.get(index);
+        }
+
+        @Override
+        public Optional<T> getHeadOption() {
+            return Optional.ofNullable(getHead());
+        }
+
+        @Override
+        protected Stream<T> computeTail() {
+            if (index + 1 < chunk.size()) {
+                return new ChunkStream<>(chunk, index + 1, generator, chunkEnd, isLastChunk);
+            }
+
+            return isLastChunk
+                ? empty()
+                : generateChunk(generator, chunkEnd, chunk.size() * 2);
+        }
+    }
+
+    private static final class LongRangeStream<T> extends NonEmptyStream<T> {
+
+        // `remaining` is an unsigned count of the items left, this node's head included. Tails
+        // are cheap to derive and not memoized, so they are reported as not computed
+        private final long current;
+        private final long remaining;
+        private final long step;
+        private final LongFunction<T> box;
+
+        private LongRangeStream(final long current, final long remaining, final long step, final LongFunction<T> box) {
+            this.current = current;
+            this.remaining = remaining;
+            this.step = step;
+            this.box = box;
+        }
+
+        @Override
+        public T getHead() {
+            return box.apply(current);
+        }
+
+        @Override
+        public Optional<T> getHeadOption() {
+            return Optional.of(getHead());
+        }
+
+        @Override
+        public Stream<T> getTail() {
+            return drop(1);
+        }
+
+        @Override
+        public boolean tailIsComputed() {
+            return false;
+        }
+
+        @Override
+        public Stream<T> drop(final int count) {
+            if (count <= 0) {
+                return this;
+            }
+
+            return Long.compareUnsigned(count, remaining) < 0
+                ? new LongRangeStream<>(current + step * count, remaining - count, step, box)
+                : empty();
+        }
+
+        @Override
+        public long knownSize() {
+            return remaining >= 0 ? remaining : -1;
+        }
+
+    }
+
+    private static final class BigIntegerRangeStream extends NonEmptyStream<BigInteger> {
+
+        private final BigInteger current;
+        private final BigInteger remaining;
+        private final BigInteger step;
+
+        private BigIntegerRangeStream(final BigInteger current, final BigInteger remaining, final BigInteger step) {
+            this.current = current;
+            this.remaining = remaining;
+            this.step = step;
+        }
+
+        @Override
+        public BigInteger getHead() {
+            return current;
+        }
+
+        @Override
+        public Optional<BigInteger> getHeadOption() {
+            return Optional.of(current);
+        }
+
+        @Override
+        public Stream<BigInteger> getTail() {
+            return drop(1);
+        }
+
+        @Override
+        public boolean tailIsComputed() {
+            return false;
+        }
+
+        @Override
+        public Stream<BigInteger> drop(final int count) {
+            if (count <= 0) {
+                return this;
+            }
+
+            final BigInteger skipped = BigInteger.valueOf(count);
+            return skipped.compareTo(remaining) < 0
+                ? new BigIntegerRangeStream(current.add(step.multiply(skipped)), remaining.subtract(skipped), step)
+                : empty();
+        }
+
+        @Override
+        public long knownSize() {
+            return remaining.bitLength() < Long.SIZE ? remaining.longValue() : -1;
+        }
+
+    }
+
+    private static final class FilteredStream<T> extends MemoizedStream<T> {
+
+        private Stream<T> baseStream;
+        private final Predicate<T> predicate;
+        private final boolean isTrue;
+        private Stream<T> firstMatch;
+
+        private FilteredStream(final Stream<T> baseStream, final Predicate<T> predicate, final boolean isTrue) {
+            this.baseStream = baseStream;
+            this.predicate = predicate;
+            this.isTrue = isTrue;
+        }
+
+        @Override
+        protected Optional<T> computeHead() {
+            return firstMatch().getHeadOption();
+        }
+
+        @Override
+        protected Stream<T> computeTail() {
+            return withFilter(firstMatch().getTail(), predicate, isTrue);
+        }
+
+        // Called under the node lock; the skipped prefix is released once the match is found
+        private Stream<T> firstMatch() {
+            if (firstMatch == null) {
+                firstMatch = baseStream.dropWhileIf(predicate, !isTrue);
+                baseStream = null;
+            }
+
+            return firstMatch;
+        }
+    }
+
+    private static final class MappedStream<T, R> extends MemoizedStream<R> {
+
+        private final Stream<T> baseStream;
+        private final Function<T, R> mapFunction;
+
+        private MappedStream(final Stream<T> baseStream, final Function<T, R> mapFunction) {
+            this.baseStream = baseStream;
+            this.mapFunction = mapFunction;
+        }
+
+        @Override
+        protected Optional<R> computeHead() {
+            return baseStream.getHeadOption().map(mapFunction);
+        }
+
+        @Override
+        protected Stream<R> computeTail() {
+            return withMapFunction(baseStream.getTail(), mapFunction);
+        }
+
+        // Walks the tails that are already memoized, so nothing mapped before is mapped again,
+        // and skips the remainder on the base stream without mapping it
+        @Override
+        public Stream<R> drop(final int count) {
+            Stream<R> curr = this;
+            int remaining = count;
+            while (remaining > 0 && curr.tailIsComputed()) {
+                curr = curr.getTail();
+                remaining--;
+            }
+            if (remaining <= 0) {
+                return curr;
+            }
+
+            return curr instanceof MappedStream
+                ? ((MappedStream<?, R>) curr).skip(remaining)
+                : curr.drop(remaining);
+        }
+
+        @Override
+        public long knownSize() {
+            return baseStream.knownSize();
+        }
+
+        private Stream<R> skip(final int count) {
+            return withMapFunction(baseStream.drop(count), mapFunction);
+        }
+    }
+
+    private static final class DeferredStream<R> implements Stream<R> {
+
+        // Defers building the stream until it is read; flatMap uses it for the first inner
+        // lookup, after which the cursor nodes below take over
+        private final Lazy<Stream<R>> lazyFirst;
+
+        private DeferredStream(final Supplier<Stream<R>> findFirst) {
+            this.lazyFirst = Lazy.of(findFirst);
+        }
+
+        @Override
+        public Optional<R> getHeadOption() {
+            return lazyFirst.get().getHeadOption();
+        }
+
+        @Override
+        public Stream<R> getTail() {
+            return lazyFirst.get().getTail();
+        }
+
+        @Override
+        public boolean headIsComputed() {
+            return lazyFirst.getIfComputed().isPresent();
+        }
+
+        @Override
+        public boolean tailIsComputed() {
+            return lazyFirst.getIfComputed().map(Stream::tailIsComputed).orElse(false);
+        }
+
+        @Override
+        public String toString() {
+            return StreamStringUtil.toString(this);
+        }
+    }
+
+    private static final class IterableCursorStream<T, R> extends MemoizedTailStream<R> {
+
+        // Like IteratorStream, the inner iterator is shared along the chain and advanced once
+        // per node, in order, by the memoized tail
+        private final R head;
+        private final Iterator<? extends R> inner;
+        private final Stream<T> outer;
+        private final Function<T, ? extends Iterable<R>> mapFunction;
+
+        private IterableCursorStream(
+                final R head,
+                final Iterator<? extends R> inner,
+                final Stream<T> outer,
+                final Function<T, ? extends Iterable<R>> mapFunction
+        ) {
+            this.head = head;
+            this.inner = inner;
+            this.outer = outer;
+            this.mapFunction = mapFunction;
+        }
+
+        @Override
+        public R getHead() {
+            return head;
+        }
+
+        @Override
+        public Optional<R> getHeadOption() {
+            return Optional.ofNullable(head);
+        }
+
+        @Override
+        protected Stream<R> computeTail() {
+            return nextFlatMapped(outer, inner, mapFunction);
+        }
+    }
+
+    private static final class StreamCursorStream<T, R> extends MemoizedTailStream<R> {
+
+        private final Stream<R> inner;
+        private final Stream<T> outer;
+        private final Function<T, Stream<R>> mapFunction;
+
+        private StreamCursorStream(
+                final Stream<R> inner,
+                final Stream<T> outer,
+                final Function<T, Stream<R>> mapFunction
+        ) {
+            this.inner = inner;
+            this.outer = outer;
+            this.mapFunction = mapFunction;
+        }
+
+        @Override
+        public R getHead() {
+            return inner.getHeadOption().orElse(null);
+        }
+
+        @Override
+        public Optional<R> getHeadOption() {
+            return inner.getHeadOption();
+        }
+
+        @Override
+        protected Stream<R> computeTail() {
+            return nextStreamFlatMapped(outer, inner.getTail(), mapFunction);
+        }
+    }
+
+    private static final class ScannedStream<T, R> extends MemoizedTailStream<R> {
+
+        // `source` is the node whose head is folded next, or the last one folded when
+        // `sourceConsumed` is set; its tail is only pulled when this node's tail is
+        private final R head;
+        private final Stream<T> source;
+        private final boolean sourceConsumed;
+        private final BiFunction<R, T, R> scanFunction;
+
+        private ScannedStream(
+                final R head,
+                final Stream<T> source,
+                final boolean sourceConsumed,
+                final BiFunction<R, T, R> scanFunction
+        ) {
+            this.head = head;
+            this.source = source;
+            this.sourceConsumed = sourceConsumed;
+            this.scanFunction = scanFunction;
+        }
+
+        @Override
+        public R getHead() {
+            return head;
+        }
+
+        @Override
+        public Optional<R> getHeadOption() {
+            return Optional.ofNullable(head);
+        }
+
+        @Override
+        protected Stream<R> computeTail() {
+            final Stream<T> next = sourceConsumed ? source.getTail() : source;
+            return next
+                .getHeadOption()
+                .<Stream<R>>map(item -> new ScannedStream<>(scanFunction.apply(head, item), next, true, scanFunction))
+                .orElse(empty());
+        }
+
+        @Override
+        public long knownSize() {
+            final long size = source.knownSize();
+            return size < 0 ? -1 : (sourceConsumed ? size : size + 1);
+        }
+    }
+
+    private static final class LongSumStream<T> extends MemoizedTailStream<Long> {
+
+        // Same cursor scheme as ScannedStream, with the running total kept unboxed
+        private final long sum;
+        private final Stream<T> consumed;
+        private final ToLongFunction<T> function;
+
+        private LongSumStream(final long sum, final Stream<T> consumed, final ToLongFunction<T> function) {
+            this.sum = sum;
+            this.consumed = consumed;
+            this.function = function;
+        }
+
+        @Override
+        public Long getHead() {
+            return sum;
+        }
+
+        @Override
+        public Optional<Long> getHeadOption() {
+            return Optional.of(sum);
+        }
+
+        @Override
+        protected Stream<Long> computeTail() {
+            final Stream<T> next = consumed.getTail();
+            return next
+                .getHeadOption()
+                .<Stream<Long>>map(item -> new LongSumStream<>(sum + function.applyAsLong(item), next, function))
+                .orElse(empty());
+        }
+
+        @Override
+        public long knownSize() {
+            return consumed.knownSize();
+        }
+    }
+
+    private static final class DoubleSumStream<T> extends MemoizedTailStream<Double> {
+
+        private final double sum;
+        private final Stream<T> consumed;
+        private final ToDoubleFunction<T> function;
+
+        private DoubleSumStream(final double sum, final Stream<T> consumed, final ToDoubleFunction<T> function) {
+            this.sum = sum;
+            this.consumed = consumed;
+            this.function = function;
+        }
+
+        @Override
+        public Double getHead() {
+            return sum;
+        }
+
+        @Override
+        public Optional<Double> getHeadOption() {
+            return Optional.of(sum);
+        }
+
+        @Override
+        protected Stream<Double> computeTail() {
+            final Stream<T> next = consumed.getTail();
+            return next
+                .getHeadOption()
+                .<Stream<Double>>map(item -> new DoubleSumStream<>(sum + function.applyAsDouble(item), next, function))
+                .orElse(empty());
+        }
+
+        @Override
+        public long knownSize() {
+            return consumed.knownSize();
+        }
+    }
+
+    private static final class ZippedStream<A, B> extends MemoizedStream<Tuple<A, B>> {
+
+        private final Stream<A> aStream;
         private final Stream<B> bStream;
 
         private ZippedStream(final Stream<A> aStream, final Stream<B> bStream) {
@@ -429,33 +1531,247 @@ final class Streams {
         }
 
         @Override
-        public Optional<Tuple<A, B>> getHeadOption() {
-            return aStream
-                .getHeadOption()
-                .flatMap(a -> bStream
-                    .getHeadOption()
-                    .map(b -> Tuple.create(a, b))
-                );
+        protected Optional<Tuple<A, B>> computeHead() {
+            final Optional<A> a = aStream.getHeadOption();
+            if (!a.isPresent()) {
+                return Optional.empty();
+            }
+
+            final Optional<B> b = bStream.getHeadOption();
+            return b.isPresent()
+                ? Optional.of(Tuple.create(a.get(), b.get()))
+                : Optional.empty();
         }
 
         @Override
-        public Stream<Tuple<A, B>> getTail() {
+        protected Stream<Tuple<A, B>> computeTail() {
             return aStream.getTail().zip(bStream.getTail());
         }
 
+        @Override
+        public Stream<Tuple<A, B>> drop(final int count) {
+            return count > 0
+                ? aStream.drop(count).zip(bStream.drop(count))
+                : this;
+        }
+
+        @Override
+        public long knownSize() {
+            final long aSize = aStream.knownSize();
+            final long bSize = bStream.knownSize();
+            if (aSize == 0 || bSize == 0) {
+                return 0;
+            }
+
+            return aSize >= 0 && bSize >= 0 ? Math.min(aSize, bSize) : -1;
+        }
+
         @Override
         public boolean headIsComputed() {
-            return aStream.headIsComputed() && bStream.headIsComputed();
+            return super.headIsComputed() || aStream.headIsComputed() && bStream.headIsComputed();
         }
 
         @Override
         public boolean tailIsComputed() {
-            return aStream.tailIsComputed() && bStream.tailIsComputed();
+            return super.tailIsComputed() || aStream.tailIsComputed() && bStream.tailIsComputed();
+        }
+    }
+
+    private static final class OffHeapStream<T> extends MemoizedTailStream<T> {
+
+        private final T head;
+        private final OffHeapStore<T> store;
+        private final int segmentIndex;
+        private final int nextOffset;
+        private final long remaining;
+
+        private OffHeapStream(
+                final T head,
+                final OffHeapStore<T> store,
+                final int segmentIndex,
+                final int nextOffset,
+                final long remaining
+        ) {
+            this.head = head;
+            this.store = store;
+            this.segmentIndex = segmentIndex;
+            this.nextOffset = nextOffset;
+            this.remaining = remaining;
         }
 
         @Override
-        public String toString() {
-            return StreamStringUtil.toString(this);
+        public T getHead() {
+            return head;
+        }
+
+        @Override
+        public Optional<T> getHeadOption() {
+            return Optional.ofNullable(head);
+        }
+
+        @Override
+        public long knownSize() {
+            return remaining;
+        }
+
+        @Override
+        protected Stream<T> computeTail() {
+            return fromOffHeap(store, segmentIndex, nextOffset, remaining - 1);
+        }
+    }
+
+    private static final class MergeSortedIterator<T> implements Iterator<T> {
+
+        // Binary min-heap of input cursors keyed on their heads, ties broken by input order so
+        // the merge is stable. The cursor that produced the last item is only advanced on the
+        // next call, so each input is pulled one element at a time
+        private final Comparator<? super T> comparator;
+        private Stream<T>[] cursors;
+        private Object[] heads;
+        private int[] order;
+        private int size = 0;
+        private boolean advancePending = false;
+
+        @SuppressWarnings("unchecked")
+        private MergeSortedIterator(final Comparator<? super T> comparator, final Iterable<Stream<T>> streams) {
+            this.comparator = comparator;
+            this.cursors = (Stream<T>[]) new Stream<?>[8];
+            this.heads = new Object[8];
+            this.order = new int[8];
+
+            int index = 0;
+            for (final Stream<T> stream: streams) {
+                final Optional<T> head = stream.getHeadOption();
+                if (head.isPresent()) {
+                    if (size == cursors.length) {
+                        cursors = Arrays.copyOf(cursors, size * 2);
+                        heads = Arrays.copyOf(heads, size * 2);
+                        order = Arrays.copyOf(order, size * 2);
+                    }
+                    cursors[size] = stream;
+                    heads[size] = head.get();
+                    order[size] = index;
+                    size++;
+                }
+                index++;
+            }
+
+            for (int slot = size / 2 - 1; slot >= 0; slot--) {
+                siftDown(slot);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (advancePending) {
+                advancePending = false;
+                final Stream<T> next = cursors[0].getTail();
+                final Optional<T> head = next.getHeadOption();
+                if (head.isPresent()) {
+                    cursors[0] = next;
+                    heads[0] = head.get();
+                }
+                else {
+                    size--;
+                    move(size, 0);
+                    cursors[size] = null;
+                    heads[size] = null;
+                }
+                siftDown(0);
+            }
+
+            return size > 0;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            advancePending = true;
+
+            @SuppressWarnings("unchecked")
+            final T head = (T) heads[0];
+            return head;
+        }
+
+        private void siftDown(int slot) {
+            if (size == 0) {
+                return;
+            }
+
+            final Stream<T> cursor = cursors[slot];
+            final Object head = heads[slot];
+            final int index = order[slot];
+            for (int child = 2 * slot + 1; child < size; child = 2 * slot + 1) {
+                if (child + 1 < size && less(child + 1, heads[child], order[child])) {
+                    child++;
+                }
+                if (!less(child, head, index)) {
+                    break;
+                }
+                move(child, slot);
+                slot = child;
+            }
+
+            cursors[slot] = cursor;
+            heads[slot] = head;
+            order[slot] = index;
+        }
+
+        private boolean less(final int slot, final Object head, final int index) {
+            @SuppressWarnings("unchecked")
+            final int cmp = comparator.compare((T) heads[slot], (T) head);
+            return cmp < 0 || (cmp == 0 && order[slot] < index);
+        }
+
+        private void move(final int from, final int to) {
+            cursors[to] = cursors[from];
+            heads[to] = heads[from];
+            order[to] = order[from];
+        }
+    }
+
+    private static final class RoundRobinIterator<T> implements Iterator<T> {
+
+        // Cursors take turns from a queue; the one that produced the last item is advanced and
+        // re-queued lazily. Interleaving stops at the first exhausted input, round robin skips it
+        private final ArrayDeque<Stream<T>> cursors = new ArrayDeque<>();
+        private final boolean stopAtFirstEnd;
+        private Stream<T> pending = null;
+        private boolean stopped = false;
+
+        private RoundRobinIterator(final Iterable<Stream<T>> streams, final boolean stopAtFirstEnd) {
+            this.stopAtFirstEnd = stopAtFirstEnd;
+            for (final Stream<T> stream: streams) {
+                cursors.addLast(stream);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending != null) {
+                cursors.addLast(pending.getTail());
+                pending = null;
+            }
+
+            while (!stopped && !cursors.isEmpty() && cursors.peekFirst().isEmpty()) {
+                cursors.pollFirst();
+                stopped = stopAtFirstEnd;
+            }
+
+            return !stopped && !cursors.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            pending = cursors.pollFirst();
+            return pending.getHeadOption().get();
         }
     }
 }
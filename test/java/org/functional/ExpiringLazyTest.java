@@ -0,0 +1,66 @@
+package org.functional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ExpiringLazyTest {
+
+    @SuppressWarnings("unchecked")
+    private final Supplier<String> supplier = mock(Supplier.class);
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private ExpiringLazy<String> lazyValue;
+
+    @Before
+    public void setUp() {
+        when(supplier.get()).thenReturn("hello");
+
+        lazyValue = ExpiringLazy.of(supplier, Duration.ofSeconds(10), ticker::get);
+    }
+
+    @Test
+    public void testMemoizationWithinTimeToLive() {
+        // When
+        lazyValue.get();
+        ticker.addAndGet(Duration.ofSeconds(9).toNanos());
+        lazyValue.get();
+
+        // Then
+        assertTrue(lazyValue.getIfComputed().isPresent());
+        verify(supplier, times(1)).get();
+    }
+
+    @Test
+    public void testRecomputeAfterExpiry() {
+        // Given
+        lazyValue.get();
+
+        // When
+        ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Then
+        assertFalse(lazyValue.getIfComputed().isPresent());
+        assertEquals("hello", lazyValue.get());
+        verify(supplier, times(2)).get();
+    }
+
+    @Test
+    public void testRefreshAndInvalidate() {
+        // When
+        lazyValue.refresh();
+        lazyValue.invalidate();
+
+        // Then
+        assertFalse(lazyValue.getIfComputed().isPresent());
+        lazyValue.get();
+        verify(supplier, times(2)).get();
+    }
+}
@@ -3,6 +3,10 @@ package org.functional;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.*;
@@ -50,4 +54,87 @@ public class LazyTest {
         // Then
         verify(supplier, times(1)).get();
     }
+
+    @Test
+    public void testMapFlatMapAndZipStayLazy() {
+        // Given
+        final Lazy<Integer> length = lazyValue.map(String::length);
+        final Lazy<String> shout = lazyValue.flatMap(it -> Lazy.of(() -> it.toUpperCase()));
+        final Lazy<Tuple<Integer, String>> both = length.zip(shout);
+
+        // Then
+        verify(supplier, never()).get();
+        assertEquals(Integer.valueOf(5), both.get().getItem1());
+        assertEquals("HELLO", both.get().getItem2());
+        assertTrue(length.getIfComputed().isPresent());
+        verify(supplier, times(1)).get();
+    }
+
+    @Test
+    public void testDeepChainsDoNotRecurse() {
+        // Given
+        Lazy<Integer> mapped = Lazy.of(() -> 0);
+        Lazy<Integer> flatMapped = Lazy.of(() -> 0);
+        for (int i = 0; i < 1_000_000; i++) {
+            mapped = mapped.map(it -> it + 1);
+            flatMapped = flatMapped.flatMap(it -> Lazy.of(() -> it + 1));
+        }
+
+        // Then
+        assertEquals(Integer.valueOf(1_000_000), mapped.get());
+        assertEquals(Integer.valueOf(1_000_000), flatMapped.get());
+    }
+
+    @Test
+    public void testForceAllEvaluatesConcurrentlyOnce() throws Exception {
+        // Given
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        final AtomicInteger sharedEvaluations = new AtomicInteger();
+        final Lazy<Integer> shared = Lazy.of(sharedEvaluations::incrementAndGet);
+        final List<Lazy<Integer>> branches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            branches.add(Lazy.of(() -> {
+                allStarted.countDown();
+                try {
+                    assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return 1;
+            }).flatMap(it -> shared.map(s -> it + s)));
+        }
+
+        try {
+            // When
+            Lazy.forceAll(executor, branches.toArray(new Lazy<?>[0])).get(10, TimeUnit.SECONDS);
+
+            // Then
+            for (final Lazy<Integer> branch: branches) {
+                assertEquals(Integer.valueOf(2), branch.getIfComputed().get());
+            }
+            assertEquals(1, sharedEvaluations.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPar() {
+        // Given
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // When
+            final Tuple<Integer, String> pair = Lazy.par(executor, Lazy.of(() -> 1), lazyValue).get();
+
+            // Then
+            assertEquals(Integer.valueOf(1), pair.getItem1());
+            assertEquals("hello", pair.getItem2());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,139 @@
+package org.functional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MemoizedTest {
+
+    @SuppressWarnings("unchecked")
+    private final Function<Integer, String> function = mock(Function.class);
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Before
+    public void setUp() {
+        when(function.apply(anyInt())).thenAnswer(invocation -> "v" + invocation.getArgument(0));
+    }
+
+    @Test
+    public void testMemoization() {
+        // Given
+        final Memoized<Integer, String> memoized = Memoized.of(function);
+
+        // When
+        final String first = memoized.apply(1);
+        final String second = memoized.apply(1);
+
+        // Then
+        assertEquals("v1", first);
+        assertEquals("v1", second);
+        verify(function, times(1)).apply(1);
+        assertEquals(1, memoized.stats().getHits());
+        assertEquals(1, memoized.stats().getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        // Given
+        final Memoized<Integer, String> memoized = Memoized.of(function, CachePolicy.bounded(2));
+
+        // When
+        memoized.apply(1);
+        memoized.apply(2);
+        memoized.apply(1);
+        memoized.apply(3);
+        memoized.apply(1);
+        memoized.apply(2);
+
+        // Then
+        verify(function, times(1)).apply(1);
+        verify(function, times(2)).apply(2);
+        assertEquals(2, memoized.size());
+        assertEquals(2, memoized.stats().getEvictions());
+    }
+
+    @Test
+    public void testSizeNeverExceedsMaximum() {
+        // Given
+        final Memoized<Integer, String> memoized = Memoized.of(function, CachePolicy.bounded(10));
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            memoized.apply(i);
+            assertTrue(memoized.size() <= 10);
+        }
+
+        // Then
+        assertEquals(10, memoized.size());
+        assertEquals(90, memoized.stats().getEvictions());
+    }
+
+    @Test
+    public void testClusteredKeysAreEvictedWithinTheirSegment() {
+        // Given
+        final Memoized<Integer, String> memoized = Memoized.of(function, CachePolicy.bounded(10));
+
+        // When
+        for (int i = 0; i < 100; i += 2) {
+            memoized.apply(i);
+        }
+
+        // Then
+        assertEquals(5, memoized.size());
+    }
+
+    @Test
+    public void testExpireAfterWrite() {
+        // Given
+        final CachePolicy policy = CachePolicy.bounded(10)
+            .expireAfterWrite(Duration.ofSeconds(1))
+            .withTicker(ticker::get);
+        final Memoized<Integer, String> memoized = Memoized.of(function, policy);
+
+        // When
+        memoized.apply(1);
+        ticker.addAndGet(Duration.ofMillis(999).toNanos());
+        memoized.apply(1);
+        ticker.addAndGet(Duration.ofMillis(1).toNanos());
+        memoized.apply(1);
+
+        // Then
+        verify(function, times(2)).apply(1);
+    }
+
+    @Test
+    public void testSoftValues() {
+        // Given
+        final Memoized<Integer, String> memoized =
+            Memoized.of(function, CachePolicy.unbounded().softValues());
+
+        // When
+        memoized.apply(1);
+        memoized.apply(1);
+
+        // Then
+        assertEquals("v1", memoized.apply(1));
+        assertEquals(1, memoized.stats().getMisses());
+    }
+
+    @Test
+    public void testInvalidate() {
+        // Given
+        final Memoized<Integer, String> memoized = Memoized.of(function);
+        memoized.apply(1);
+
+        // When
+        memoized.invalidate(1);
+        memoized.apply(1);
+
+        // Then
+        verify(function, times(2)).apply(1);
+    }
+}
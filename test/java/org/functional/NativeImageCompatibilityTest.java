@@ -0,0 +1,189 @@
+package org.functional;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class NativeImageCompatibilityTest {
+
+    // Classes that native-image can only handle with extra configuration, matched by prefix
+    // against the constant pool's Class entries
+    private static final List<String> REFLECTIVE_CLASSES = Arrays.asList(
+        "java/lang/reflect/",
+        "java/util/ServiceLoader",
+        "sun/misc/Unsafe"
+    );
+
+    // Methods matched as owner.name prefixes against Methodref and InterfaceMethodref entries
+    private static final List<String> REFLECTIVE_METHODS = Arrays.asList(
+        "java/lang/Class.forName",
+        "java/lang/Class.getDeclared",
+        "java/lang/Class.getMethod",
+        "java/lang/Class.getField",
+        "java/lang/Class.getConstructor",
+        "java/lang/Class.newInstance",
+        "java/lang/ClassLoader.loadClass"
+    );
+
+    private static final List<String> SERIALIZATION_CLASSES = Arrays.asList(
+        "java/io/ObjectInputStream",
+        "java/io/ObjectOutputStream"
+    );
+
+    @Test
+    public void testLibraryNeedsNoReflectionConfiguration() throws IOException, URISyntaxException {
+        // Given
+        final Path classes = Paths.get(Lazy.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        assumeTrue(Files.isDirectory(classes));
+        final List<Path> classFiles;
+        try (final java.util.stream.Stream<Path> files = Files.walk(classes)) {
+            classFiles = files.filter(it -> it.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+
+        // When
+        final List<String> violations = new ArrayList<>();
+        for (final Path classFile: classFiles) {
+            final String name = classes.relativize(classFile).toString().replace('\\', '/');
+            final ConstantPool pool = ConstantPool.read(Files.readAllBytes(classFile));
+            collect(violations, name, pool.classes, REFLECTIVE_CLASSES);
+            collect(violations, name, pool.methods, REFLECTIVE_METHODS);
+            // Codecs.serialized() is the documented exception
+            if (!name.startsWith("org/functional/collections/Codecs")) {
+                collect(violations, name, pool.classes, SERIALIZATION_CLASSES);
+            }
+        }
+
+        // Then
+        assertFalse(classFiles.isEmpty());
+        assertTrue(violations.toString(), violations.isEmpty());
+    }
+
+    @Test
+    public void testStringConstantsAreNotReferences() throws IOException, URISyntaxException {
+        // Given
+        final Path classes = Paths.get(
+            NativeImageCompatibilityTest.class.getProtectionDomain().getCodeSource().getLocation().toURI()
+        );
+        assumeTrue(Files.isDirectory(classes));
+        final Path self = classes.resolve(NativeImageCompatibilityTest.class.getName().replace('.', '/') + ".class");
+
+        // When
+        final ConstantPool pool = ConstantPool.read(Files.readAllBytes(self));
+
+        // Then
+        assertTrue(pool.classes.contains("java/util/Arrays"));
+        assertTrue(pool.methods.contains("java/util/Arrays.asList"));
+        assertFalse(pool.classes.stream().anyMatch(it -> it.startsWith("java/lang/reflect/")));
+        assertFalse(pool.methods.stream().anyMatch(it -> it.startsWith("java/lang/Class.forName")));
+    }
+
+    // Private methods
+
+    private static void collect(
+            final List<String> violations,
+            final String name,
+            final List<String> references,
+            final List<String> forbidden
+    ) {
+        for (final String reference: references) {
+            for (final String prefix: forbidden) {
+                if (reference.startsWith(prefix)) {
+                    violations.add(name + " references " + reference);
+                }
+            }
+        }
+    }
+
+    // Inner classes
+
+    private static final class ConstantPool {
+
+        // Only Class entries and method references are kept; string literals and descriptors
+        // sit in Utf8 entries and no longer count as references
+        private final List<String> classes = new ArrayList<>();
+        private final List<String> methods = new ArrayList<>();
+
+        private static ConstantPool read(final byte[] bytes) throws IOException {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("Not a class file");
+            }
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+
+            final int count = in.readUnsignedShort();
+            final String[] utf8 = new String[count];
+            final int[] classNames = new int[count];
+            final int[][] memberRefs = new int[count][];
+            final int[][] nameAndTypes = new int[count][];
+            for (int index = 1; index < count; index++) {
+                final int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        utf8[index] = in.readUTF();
+                        break;
+                    case 7:
+                        classNames[index] = in.readUnsignedShort();
+                        break;
+                    case 10:
+                    case 11:
+                        memberRefs[index] = new int[] { in.readUnsignedShort(), in.readUnsignedShort() };
+                        break;
+                    case 12:
+                        nameAndTypes[index] = new int[] { in.readUnsignedShort(), in.readUnsignedShort() };
+                        break;
+                    case 3:
+                    case 4:
+                    case 9:
+                    case 17:
+                    case 18:
+                        in.skipBytes(4);
+                        break;
+                    case 5:
+                    case 6:
+                        in.skipBytes(8);
+                        index++;
+                        break;
+                    case 8:
+                    case 16:
+                    case 19:
+                    case 20:
+                        in.skipBytes(2);
+                        break;
+                    case 15:
+                        in.skipBytes(3);
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag + " at " + index);
+                }
+            }
+
+            final ConstantPool pool = new ConstantPool();
+            for (int index = 1; index < count; index++) {
+                if (classNames[index] != 0) {
+                    pool.classes.add(utf8[classNames[index]]);
+                }
+                if (memberRefs[index] != null) {
+                    final String owner = utf8[classNames[memberRefs[index][0]]];
+                    final String member = utf8[nameAndTypes[memberRefs[index][1]][0]];
+                    pool.methods.add(owner + "." + member);
+                }
+            }
+
+            return pool;
+        }
+    }
+}
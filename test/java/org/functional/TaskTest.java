@@ -0,0 +1,192 @@
+package org.functional;
+
+import org.functional.collections.PersistentVector;
+import org.functional.collections.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class TaskTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testIsLazyAndRerunnable() {
+        // Given
+        final AtomicInteger runs = new AtomicInteger();
+        final Task<Integer> task = Task.of(runs::incrementAndGet);
+
+        // Then
+        assertEquals(0, runs.get());
+        assertEquals(Integer.valueOf(1), task.run(executor).join());
+        assertEquals(Integer.valueOf(2), task.run(executor).join());
+    }
+
+    @Test
+    public void testComposition() {
+        // Given
+        final Task<String> task = Task.of(() -> 20)
+            .map(it -> it + 1)
+            .flatMap(it -> Task.of(() -> it * 2))
+            .map(String::valueOf);
+
+        // Then
+        assertEquals("42", task.run(executor).join());
+    }
+
+    @Test
+    public void testRecover() {
+        // Given
+        final Task<Integer> failing = Task.of(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        // Then
+        assertEquals(Integer.valueOf(-1), failing.recover(e -> e.getMessage().equals("boom") ? -1 : 0).run(executor).join());
+        assertEquals(Integer.valueOf(7), failing.recoverWith(e -> Task.success(7)).run(executor).join());
+
+        final Try<Integer> attempt = failing.attempt().run(executor).join();
+        assertTrue(attempt.isFailure());
+        assertTrue(attempt.toThrowable().get() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testZipParRunsConcurrently() {
+        // Given
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final Task<Integer> first = Task.of(() -> awaitBoth(bothStarted, 1));
+        final Task<String> second = Task.of(() -> awaitBoth(bothStarted, "two"));
+
+        // When
+        final Tuple<Integer, String> result = Task.zipPar(first, second).run(executor).join();
+
+        // Then
+        assertEquals(Integer.valueOf(1), result.getItem1());
+        assertEquals("two", result.getItem2());
+    }
+
+    @Test
+    public void testTraverseBoundsConcurrency() {
+        // Given
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final Stream<Integer> items = PersistentVector.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10).toStream();
+
+        // When
+        final PersistentVector<Try<Integer>> results = Task.traverse(items, it -> Task.of(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            inFlight.decrementAndGet();
+            if (it == 5) {
+                throw new IllegalArgumentException("five");
+            }
+            return it * it;
+        }), 2).run(executor).join();
+
+        // Then
+        assertEquals(10, results.size());
+        assertTrue(maxInFlight.get() <= 2);
+        assertEquals(Integer.valueOf(1), results.get(0).toOptional().get());
+        assertEquals(Integer.valueOf(100), results.get(9).toOptional().get());
+        assertTrue(results.get(4).isFailure());
+    }
+
+    @Test
+    public void testTraverseWithSynchronousTasks() {
+        // Given
+        final Stream<Integer> items = PersistentVector.from(java.util.Collections.nCopies(100_000, 1)).toStream();
+
+        // When
+        final PersistentVector<Try<Integer>> results = Task.traverse(items, Task::success, 4).run(Runnable::run).join();
+
+        // Then
+        assertEquals(100_000, results.size());
+    }
+
+    @Test
+    public void testCancelSkipsPendingSteps() throws Exception {
+        // Given
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger laterSteps = new AtomicInteger();
+        final Task<Integer> task = Task.of(() -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 1;
+        }).flatMap(it -> Task.of(laterSteps::incrementAndGet));
+
+        // When
+        final CompletableFuture<Integer> running = task.run(executor);
+        running.cancel(true);
+        release.countDown();
+        Thread.sleep(50);
+
+        // Then
+        assertTrue(running.isCancelled());
+        assertEquals(0, laterSteps.get());
+    }
+
+    @Test
+    public void testCancelMidTraversalFailsTheTraversal() {
+        // Given
+        final Queue<Runnable> queued = new ArrayDeque<>();
+        final AtomicReference<CompletableFuture<?>> running = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicInteger pulled = new AtomicInteger();
+        final Stream<Integer> items = PersistentVector.of(1, 2, 3, 4, 5).toStream();
+        final Task<PersistentVector<Try<Integer>>> task = Task.traverse(items, it -> {
+            pulled.incrementAndGet();
+            if (it == 3) {
+                running.get().cancel(false);
+            }
+            return Task.of(() -> it);
+        }, 1).recover(throwable -> {
+            failure.set(throwable);
+            return PersistentVector.empty();
+        });
+
+        // When
+        running.set(task.run(queued::add));
+        while (!queued.isEmpty()) {
+            queued.poll().run();
+        }
+
+        // Then
+        assertTrue(running.get().isCancelled());
+        assertTrue(failure.get() instanceof CancellationException);
+        assertEquals(3, pulled.get());
+    }
+
+    private static <A> A awaitBoth(final CountDownLatch latch, final A result) {
+        latch.countDown();
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Tasks did not run concurrently");
+            }
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+}
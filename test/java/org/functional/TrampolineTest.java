@@ -0,0 +1,44 @@
+package org.functional;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TrampolineTest {
+
+    private static final int DEPTH = 1_000_000;
+
+    @Test
+    public void testDeepMutualRecursion() {
+        // Then
+        assertTrue(isEven(DEPTH).run());
+        assertFalse(isEven(DEPTH + 1).run());
+    }
+
+    @Test
+    public void testDeepFlatMapChain() {
+        // Given
+        Trampoline<Long> sum = Trampoline.done(0L);
+        for (int i = 1; i <= DEPTH; i++) {
+            final long item = i;
+            sum = sum.flatMap(acc -> Trampoline.done(acc + item));
+        }
+
+        // Then
+        assertEquals((long) DEPTH * (DEPTH + 1) / 2, (long) sum.run());
+    }
+
+    @Test
+    public void testMap() {
+        // Then
+        assertEquals("42", Trampoline.more(() -> Trampoline.done(42)).map(String::valueOf).run());
+    }
+
+    private static Trampoline<Boolean> isEven(final int n) {
+        return n == 0 ? Trampoline.done(true) : Trampoline.more(() -> isOdd(n - 1));
+    }
+
+    private static Trampoline<Boolean> isOdd(final int n) {
+        return n == 0 ? Trampoline.done(false) : Trampoline.more(() -> isEven(n - 1));
+    }
+}
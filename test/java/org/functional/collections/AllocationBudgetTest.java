@@ -0,0 +1,254 @@
+package org.functional.collections;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.functional.Lazy;
+import org.functional.Try;
+import org.functional.Tuple;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class AllocationBudgetTest {
+
+    private static final int ELEMENTS = 100_000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 5;
+
+    private static final Properties budgets = new Properties();
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // Budgets assume nothing is scalar-replaced; with escape analysis on, results depend
+        // on what else ran in the JVM. The assumptions skip the whole class without failing,
+        // so an IDE run or a plain JVM reports it as skipped rather than checked; the
+        // allocation-budgets surefire execution is what actually enforces the budgets
+        final HotSpotDiagnosticMXBean diagnostics = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        assumeTrue(diagnostics != null && "false".equals(diagnostics.getVMOption("DoEscapeAnalysis").getValue()));
+
+        try (final InputStream in = AllocationBudgetTest.class.getResourceAsStream("allocation-budgets.properties")) {
+            assertNotNull("allocation-budgets.properties is missing from the test classpath", in);
+            budgets.load(in);
+        }
+    }
+
+    // Sources
+
+    @Test
+    public void testFromArray() {
+        final Integer[] items = Collections.nCopies(ELEMENTS, 1).toArray(new Integer[0]);
+        assertWithinBudget("source.fromArray", () -> Streams.from(items));
+    }
+
+    @Test
+    public void testFromIterable() {
+        final Iterable<Integer> items = Collections.nCopies(ELEMENTS, 1);
+        assertWithinBudget("source.fromIterable", () -> Streams.from(items));
+    }
+
+    @Test
+    public void testFromIterator() {
+        assertWithinBudget("source.fromIterator", () -> Streams.fromIterator(Collections.nCopies(ELEMENTS, 1).iterator()));
+    }
+
+    @Test
+    public void testFromVector() {
+        final PersistentVector<Integer> vector = PersistentVector.from(Collections.nCopies(ELEMENTS, 1));
+        assertWithinBudget("source.fromVector", vector::toStream);
+    }
+
+    @Test
+    public void testRange() {
+        assertWithinBudget("source.range", () -> Streams.range(0, ELEMENTS));
+    }
+
+    @Test
+    public void testRepeat() {
+        assertWithinBudget("source.repeat", () -> limit(Streams.repeat(1, it -> it)));
+    }
+
+    @Test
+    public void testUnfold() {
+        assertWithinBudget("source.unfold", () -> Streams.<Integer, Integer>unfold(
+            0,
+            it -> it < ELEMENTS ? Optional.of(Tuple.create(1, it + 1)) : Optional.empty()
+        ));
+    }
+
+    @Test
+    public void testGenerate() {
+        assertWithinBudget("source.generate", () -> Streams.<Integer>generateReplayable(sink -> {
+            for (int i = 0; i < ELEMENTS && sink.accept(1); i++) {
+                // keep pushing
+            }
+        }));
+    }
+
+    @Test
+    public void testOffHeap() {
+        final OffHeapStore<Integer> store = Streams.range(0, ELEMENTS).toOffHeap(Codecs.ints());
+        try {
+            assertWithinBudget("source.offHeap", store::toStream);
+        }
+        finally {
+            store.free();
+        }
+    }
+
+    // Operators
+
+    @Test
+    public void testMap() {
+        assertWithinBudget("op.map", () -> Streams.range(0, ELEMENTS).map(it -> it & 1));
+    }
+
+    @Test
+    public void testFilter() {
+        assertWithinBudget("op.filter", () -> Streams.range(0, 2 * ELEMENTS).filter(it -> (it & 1) == 0));
+    }
+
+    @Test
+    public void testFlatMap() {
+        assertWithinBudget("op.flatMap", () -> Streams.range(0, ELEMENTS / 4).flatMap(it -> Collections.nCopies(4, 1)));
+    }
+
+    @Test
+    public void testFlatMapStream() {
+        assertWithinBudget("op.flatMapStream", () -> Streams.range(0, ELEMENTS / 4).flatMapStream(it -> Streams.range(0, 4)));
+    }
+
+    @Test
+    public void testZip() {
+        assertWithinBudget("op.zip", () -> Streams.range(0, ELEMENTS).zip(Streams.range(0, ELEMENTS)).map(it -> 1));
+    }
+
+    @Test
+    public void testAppend() {
+        assertWithinBudget("op.append", () -> Streams.range(0, ELEMENTS / 2).append(Streams.range(0, ELEMENTS / 2)));
+    }
+
+    @Test
+    public void testScanLeft() {
+        assertWithinBudget("op.scanLeft", () -> Streams.range(0, ELEMENTS - 1).scanLeft(0, (acc, it) -> it & 1));
+    }
+
+    @Test
+    public void testMergeSorted() {
+        assertWithinBudget("op.mergeSorted", () -> Streams.mergeSorted(
+            Integer::compare,
+            Streams.range(0, ELEMENTS, 2), Streams.range(1, ELEMENTS, 2)
+        ));
+    }
+
+    @Test
+    public void testTake() {
+        final Stream<Integer> range = Streams.range(0, ELEMENTS);
+        assertWithinBudget("op.take", () -> Streams.fromIterator(range.take(ELEMENTS).iterator()));
+    }
+
+    @Test
+    public void testToVector() {
+        final Stream<Integer> range = Streams.range(0, ELEMENTS);
+        assertWithinBudget("op.toVector", () -> range.toVector().toStream());
+    }
+
+    // Core types
+
+    @Test
+    public void testLazyMapChain() {
+        assertWithinBudget("lazy.mapChain", () -> {
+            Lazy<Integer> lazy = Lazy.of(() -> 0);
+            for (int i = 0; i < ELEMENTS; i++) {
+                lazy = lazy.map(it -> it);
+            }
+            lazy.get();
+            return Streams.range(0, 0);
+        });
+    }
+
+    @Test
+    public void testTryMap() {
+        assertWithinBudget("try.map", () -> {
+            Try<Integer> result = Try.success(0);
+            for (int i = 0; i < ELEMENTS; i++) {
+                result = result.map(it -> it);
+            }
+            return Streams.range(0, 0);
+        });
+    }
+
+    // Private methods
+
+    private static Stream<Integer> limit(final Stream<Integer> stream) {
+        return Streams.fromIterator(new Iterator<Integer>() {
+
+            private Stream<Integer> rest = stream;
+            private int remaining = ELEMENTS;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Integer next() {
+                final Integer head = rest.getHeadOption().get();
+                rest = rest.getTail();
+                remaining--;
+                return head;
+            }
+        });
+    }
+
+    // Builds and fully traverses the stream; the cheapest of several runs after warm-up is
+    // compared, per element, against the checked-in budget
+    private static void assertWithinBudget(final String name, final Supplier<Stream<Integer>> pipeline) {
+        final String budget = budgets.getProperty(name);
+        assertNotNull("No allocation budget for " + name, budget);
+
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            traverse(pipeline.get());
+        }
+
+        long best = Long.MAX_VALUE;
+        final long threadId = Thread.currentThread().getId();
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            final long before = threads.getThreadAllocatedBytes(threadId);
+            traverse(pipeline.get());
+            best = Math.min(best, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        final double perElement = (double) best / ELEMENTS;
+        if (Boolean.getBoolean("allocation.report")) {
+            System.out.printf("%s=%.2f%n", name, perElement);
+        }
+        assertTrue(
+            String.format("%s allocated %.2f bytes per element, budget is %s", name, perElement, budget),
+            perElement <= Double.parseDouble(budget)
+        );
+    }
+
+    private static void traverse(final Stream<Integer> stream) {
+        Stream<Integer> curr = stream;
+        while (curr.getHeadOption().isPresent()) {
+            curr = curr.getTail();
+        }
+    }
+}
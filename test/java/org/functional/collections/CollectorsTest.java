@@ -0,0 +1,84 @@
+package org.functional.collections;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CollectorsTest {
+
+    private final Stream<Integer> sample = Streams.from(3, 1, 4, 1, 5);
+
+    @Test
+    public void testToImmutableList() {
+        // When
+        final List<Integer> list = sample.collect(Collectors.toImmutableList());
+
+        // Then
+        assertEquals(Arrays.asList(3, 1, 4, 1, 5), list);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutableListRejectsChanges() {
+        // When
+        sample.collect(Collectors.toImmutableList()).add(9);
+    }
+
+    @Test
+    public void testToArray() {
+        // When
+        final Integer[] array = sample.collect(Collectors.toArray(Integer[]::new));
+
+        // Then
+        assertArrayEquals(new Integer[] { 3, 1, 4, 1, 5 }, array);
+    }
+
+    @Test
+    public void testToPrimitiveArrays() {
+        // Then
+        assertArrayEquals(new int[] { 3, 1, 4, 1, 5 }, sample.collect(Collectors.toIntArray(it -> it)));
+        assertArrayEquals(new long[] { 6, 2, 8, 2, 10 }, sample.collect(Collectors.toLongArray(it -> it * 2L)));
+        assertArrayEquals(
+            new double[] { 1.5, 0.5, 2, 0.5, 2.5 },
+            sample.collect(Collectors.toDoubleArray(it -> it / 2.0)),
+            0.0
+        );
+    }
+
+    @Test
+    public void testFromIterable() {
+        // When
+        final Stream<Integer> stream = Streams.from(Arrays.asList(1, 2, 3));
+
+        // Then
+        assertEquals("{1, 2, 3}", stream.toString());
+    }
+
+    @Test
+    public void testTakeIsImmutable() {
+        // When
+        final List<Integer> taken = Streams.startingAt(0).take(40);
+
+        // Then
+        assertEquals(40, taken.size());
+        assertEquals(39, (int) taken.get(39));
+        assertUnsupported(() -> taken.add(40));
+        assertUnsupported(() -> taken.set(0, 1));
+        assertUnsupported(() -> taken.remove(0));
+        assertUnsupported(taken::clear);
+    }
+
+    // Private methods
+
+    private static void assertUnsupported(final Runnable mutation) {
+        try {
+            mutation.run();
+            fail("expected UnsupportedOperationException");
+        }
+        catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.functional.collections;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+import static org.junit.Assert.*;
+
+public class ColumnarBatchTest {
+
+    private static final class Order {
+
+        private final int quantity;
+        private final long id;
+        private final double price;
+        private final String customer;
+
+        private Order(final int quantity, final long id, final double price, final String customer) {
+            this.quantity = quantity;
+            this.id = id;
+            this.price = price;
+            this.customer = customer;
+        }
+    }
+
+    private final ColumnarBatch.Schema<Order> schema = ColumnarBatch.<Order>schema()
+        .withInt("quantity", it -> it.quantity)
+        .withLong("id", it -> it.id)
+        .withDouble("price", it -> it.price)
+        .withObject("customer", it -> it.customer);
+    private final ColumnarBatch.Schema<Order> schemaWithRows = schema.withRows();
+
+    private final Stream<Order> orders = Streams.range(0, 1000)
+        .map(it -> new Order(it % 10, it, it * 0.5, "c" + (it % 3)));
+
+    @Test
+    public void testColumnsHoldExtractedFields() {
+        // When
+        final ColumnarBatch<Order> batch = orders.toColumnar(schemaWithRows);
+
+        // Then
+        assertEquals(1000, batch.size());
+        assertEquals(Arrays.asList("quantity", "id", "price", "customer"), batch.getSchema().columnNames());
+        assertEquals(7, batch.getInt("quantity", 17));
+        assertEquals(17L, batch.getLong("id", 17));
+        assertEquals(8.5, batch.getDouble("price", 17), 0.0);
+        assertEquals("c2", batch.<String>get("customer", 17));
+        assertEquals(17L, batch.getRow(17).id);
+    }
+
+    @Test
+    public void testAggregates() {
+        // When
+        final ColumnarBatch<Order> batch = orders.toColumnar(schema);
+
+        // Then
+        assertEquals(4500L, batch.sumInt("quantity"));
+        assertEquals(499_500L, batch.sumLong("id"));
+        assertEquals(249_750.0, batch.sumDouble("price"), 1e-9);
+        assertEquals(249.75, batch.averageDouble("price").getAsDouble(), 1e-9);
+        assertEquals(OptionalInt.of(0), batch.minInt("quantity"));
+        assertEquals(OptionalInt.of(9), batch.maxInt("quantity"));
+        assertEquals(100, batch.countInt("quantity", it -> it == 3));
+        assertEquals(4.5, batch.averageInt("quantity").getAsDouble(), 1e-9);
+        assertEquals(OptionalLong.of(0), batch.minLong("id"));
+        assertEquals(OptionalLong.of(999), batch.maxLong("id"));
+        assertEquals(499.5, batch.averageLong("id").getAsDouble(), 1e-9);
+        assertEquals(500, batch.countLong("id", it -> it % 2 == 0));
+        assertEquals(OptionalDouble.of(0.0), batch.minDouble("price"));
+        assertEquals(OptionalDouble.of(499.5), batch.maxDouble("price"));
+        assertEquals(200, batch.countDouble("price", it -> it < 100));
+    }
+
+    @Test
+    public void testFiltersKeepColumnsAligned() {
+        // When
+        final ColumnarBatch<Order> batch = orders.toColumnar(schemaWithRows)
+            .filterInt("quantity", it -> it == 3)
+            .filterDouble("price", it -> it < 100)
+            .filter("customer", "c0"::equals);
+
+        // Then
+        final List<Long> ids = batch.<Long>columnStream("id").take(batch.size());
+        assertEquals(Arrays.asList(3L, 33L, 63L, 93L, 123L, 153L, 183L), ids);
+        assertEquals(ids, batch.toStream().map(it -> it.id).take(batch.size()));
+        assertEquals(3, batch.filterLong("id", it -> it > 100).size());
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        // When
+        final ColumnarBatch<Order> batch = Streams.<Order>empty().toColumnar(schemaWithRows);
+
+        // Then
+        assertEquals(0, batch.size());
+        assertEquals(0L, batch.sumInt("quantity"));
+        assertFalse(batch.minInt("quantity").isPresent());
+        assertFalse(batch.averageDouble("price").isPresent());
+        assertFalse(batch.maxLong("id").isPresent());
+        assertFalse(batch.minDouble("price").isPresent());
+        assertFalse(batch.averageInt("quantity").isPresent());
+        assertFalse(batch.toStream().getHeadOption().isPresent());
+    }
+
+    @Test
+    public void testToStreamIsLazy() {
+        // Given
+        final ColumnarBatch<Order> batch = orders.toColumnar(schemaWithRows);
+
+        // When
+        final Stream<Order> stream = batch.toStream();
+
+        // Then
+        assertFalse(stream.tailIsComputed());
+        assertEquals(0L, stream.getHeadOption().get().id);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRowsAreNotKeptByDefault() {
+        // Given
+        final ColumnarBatch<Order> batch = orders.toColumnar(schema).filterInt("quantity", it -> it == 3);
+
+        // Then
+        assertEquals(300L, batch.sumInt("quantity"));
+        batch.getRow(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testToStreamNeedsRows() {
+        // Given
+        final ColumnarBatch<Order> batch = orders.toColumnar(schema);
+
+        // When
+        batch.toStream();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongColumnTypeFails() {
+        orders.toColumnar(schema).sumLong("quantity");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateColumnFails() {
+        schema.withInt("id", it -> 0);
+    }
+}
@@ -0,0 +1,56 @@
+package org.functional.collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CountMinSketchTest {
+
+    @Test
+    public void testFrequenciesNeverUndercount() {
+        // When
+        final CountMinSketch<Integer> sketch = Streams.range(0, 100_000)
+            .map(it -> it % 10 == 0 ? 7 : it)
+            .approxFrequencies(0.001, 0.99);
+
+        // Then
+        assertEquals(100_000, sketch.getTotal());
+        final long sevens = sketch.estimateCount(7);
+        assertTrue(sevens >= 10_001);
+        assertTrue(sevens <= 10_001 + 0.001 * 100_000);
+        assertTrue(sketch.estimateCount(11) >= 1);
+    }
+
+    @Test
+    public void testMergeAddsCounts() {
+        // Given
+        final CountMinSketch<String> first = CountMinSketch.<String>create(0.01, 0.9).add("a", 3).add("b");
+        final CountMinSketch<String> second = CountMinSketch.<String>create(0.01, 0.9).add("a", 2);
+
+        // When
+        final CountMinSketch<String> merged = first.merge(second);
+
+        // Then
+        assertEquals(5, merged.estimateCount("a"));
+        assertEquals(6, merged.getTotal());
+        assertEquals(3, first.estimateCount("a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeRejectsOtherDimensions() {
+        // When
+        CountMinSketch.create(0.01, 0.9).merge(CountMinSketch.create(0.1, 0.9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeRejectsOtherHasher() {
+        // When
+        CountMinSketch.<String>create(0.01, 0.9).merge(CountMinSketch.create(0.01, 0.9, it -> (long) it.length()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTableLargerThanAnArray() {
+        // When
+        CountMinSketch.create(1e-9, 0.99);
+    }
+}
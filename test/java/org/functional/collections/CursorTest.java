@@ -0,0 +1,216 @@
+package org.functional.collections;
+
+import org.functional.Tuple;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class CursorTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFoldSavesCheckpoints() {
+        // Given
+        final CheckpointStore<Integer, Long> store = CheckpointStores.inMemory();
+        final Cursor<Integer, Integer> naturals = Cursor.repeat(0, it -> it + 1);
+        final Cursor<Integer, Integer> bounded = Cursor.<Integer, Integer>unfold(0, it -> it < 1000
+            ? Optional.of(Tuple.create(it, it + 1))
+            : Optional.empty()
+        );
+
+        // When
+        final Long sum = bounded.map(Integer::longValue).foldLeft(0L, Long::sum, store, 64);
+
+        // Then
+        assertEquals(Long.valueOf(499_500), sum);
+        assertEquals(Checkpoint.create(1000, 499_500L, 1000), store.load().get());
+        assertEquals(Arrays.asList(3, 4, 5), naturals.toStream(3).take(3));
+    }
+
+    @Test
+    public void testResumeDoesNotReplayConsumedInput() {
+        // Given
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+        final List<Integer> folded = new ArrayList<>();
+        final CheckpointStore<Integer, Integer> store = CheckpointStores.inMemory();
+        final Cursor<Integer, Integer> cursor = Cursor.from(items).filter(it -> it % 2 == 1);
+
+        // When
+        try {
+            cursor.foldLeft(0, (acc, it) -> {
+                if (it == 51) {
+                    throw new IllegalStateException("crash");
+                }
+                folded.add(it);
+                return acc + it;
+            }, store, 10);
+            fail("expected the fold to crash");
+        }
+        catch (final IllegalStateException e) {
+            assertEquals("crash", e.getMessage());
+        }
+        final Checkpoint<Integer, Integer> crashed = store.load().get();
+        final Integer sum = cursor.foldLeft(0, (acc, it) -> {
+            folded.add(it);
+            return acc + it;
+        }, store, 10);
+
+        // Then
+        assertEquals(Checkpoint.create(50, 625, 25), crashed);
+        assertEquals(Integer.valueOf(2500), sum);
+        assertEquals(Integer.valueOf(2500), cursor.foldLeft(0, Integer::sum, store, 10));
+        assertEquals(50, folded.size());
+        assertEquals(Integer.valueOf(51), folded.get(25));
+    }
+
+    @Test
+    public void testIntervalCountsFilteredOutItems() {
+        // Given
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(i);
+        }
+        final List<Integer> positions = new ArrayList<>();
+        final CheckpointStore<Integer, Integer> store = CheckpointStores.inMemory();
+        final CheckpointStore<Integer, Integer> recording = new CheckpointStore<Integer, Integer>() {
+
+            @Override
+            public Optional<Checkpoint<Integer, Integer>> load() {
+                return store.load();
+            }
+
+            @Override
+            public void save(final Checkpoint<Integer, Integer> checkpoint) {
+                positions.add(checkpoint.getPosition());
+                store.save(checkpoint);
+            }
+
+            @Override
+            public void clear() {
+                store.clear();
+            }
+        };
+
+        // When
+        final Integer sum = Cursor.from(items).filter(it -> it % 100 == 0).foldLeft(0, Integer::sum, recording, 10);
+
+        // Then
+        assertEquals(Integer.valueOf(4500), sum);
+        assertEquals(Arrays.asList(101, 201, 301, 401, 501, 601, 701, 801, 901, 1000), positions);
+        assertEquals(Checkpoint.create(1000, 4500, 10), store.load().get());
+    }
+
+    @Test
+    public void testLinesResumeAtByteOffset() throws IOException {
+        // Given
+        final Path file = folder.newFile("lines.txt").toPath();
+        Files.write(file, "alpha\r\nb\u00e9ta\n\ngamma\ndelta".getBytes(StandardCharsets.UTF_8));
+        final Cursor<Long, String> lines = Cursor.lines(file);
+
+        // When
+        final List<Tuple<String, Long>> positioned = lines.toPositionedStream(lines.start()).take(10);
+
+        // Then
+        assertEquals(5, positioned.size());
+        assertEquals("b\u00e9ta", positioned.get(1).getItem1());
+        assertEquals(Long.valueOf(13), positioned.get(1).getItem2());
+        assertEquals("", positioned.get(2).getItem1());
+        assertEquals(Long.valueOf(25), positioned.get(4).getItem2());
+        assertEquals(Arrays.asList("", "gamma", "delta"), lines.toStream(13L).take(10));
+        assertFalse(lines.toStream(25L).getHeadOption().isPresent());
+    }
+
+    @Test
+    public void testFileStoreResumesLinesFold() throws IOException {
+        // Given
+        final File directory = folder.newFolder();
+        final Path file = directory.toPath().resolve("numbers.txt");
+        final StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= 500; i++) {
+            content.append(i).append('\n');
+        }
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+        final Path checkpoints = directory.toPath().resolve("fold.checkpoint");
+        final CheckpointStore<Long, Long> store = CheckpointStores.file(checkpoints, Codecs.longs(), Codecs.longs());
+        final int[] parsed = new int[1];
+        final Cursor<Long, Long> numbers = Cursor.lines(file).map(it -> {
+            parsed[0]++;
+            return Long.parseLong(it);
+        });
+
+        // When
+        try {
+            numbers.foldLeft(0L, (acc, it) -> {
+                if (it == 321) {
+                    throw new IllegalStateException("crash");
+                }
+                return acc + it;
+            }, store, 50);
+            fail("expected the fold to crash");
+        }
+        catch (final IllegalStateException e) {
+            assertEquals("crash", e.getMessage());
+        }
+        final Checkpoint<Long, Long> crashed = CheckpointStores.file(checkpoints, Codecs.longs(), Codecs.longs())
+            .load()
+            .get();
+        parsed[0] = 0;
+        final Long sum = numbers.foldLeft(0L, Long::sum, store, 50);
+
+        // Then
+        assertEquals(300, crashed.getCount());
+        assertEquals(Long.valueOf(45_150), crashed.getState());
+        assertEquals(Long.valueOf(125_250), sum);
+        assertEquals(200, parsed[0]);
+        assertEquals(Arrays.asList("fold.checkpoint", "numbers.txt"), sortedNames(directory));
+    }
+
+    @Test
+    public void testFileStoreRoundTrip() throws IOException {
+        // Given
+        final Path path = folder.getRoot().toPath().resolve("state.checkpoint");
+        final CheckpointStore<String, String> store = CheckpointStores.file(path, Codecs.strings(), Codecs.strings());
+
+        // When
+        final Optional<Checkpoint<String, String>> missing = store.load();
+        store.save(Checkpoint.create("position", "first", 1));
+        store.save(Checkpoint.create("position", "second", 2));
+
+        // Then
+        assertFalse(missing.isPresent());
+        assertEquals(Checkpoint.create("position", "second", 2), store.load().get());
+        store.clear();
+        assertFalse(store.load().isPresent());
+        assertFalse(Files.exists(path));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntervalMustBePositive() {
+        Cursor.repeat(0, it -> it).foldLeft(0, Integer::sum, CheckpointStores.inMemory(), 0);
+    }
+
+    // Private methods
+
+    private static List<String> sortedNames(final File directory) {
+        final String[] names = directory.list();
+        Arrays.sort(names);
+        return Arrays.asList(names);
+    }
+}
@@ -0,0 +1,47 @@
+package org.functional.collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    public void testEstimateIsWithinError() {
+        // When
+        final long estimate = Streams.range(0, 200_000).map(it -> "item-" + (it % 50_000)).approxDistinct();
+
+        // Then
+        assertEquals(50_000, estimate, 50_000 * 0.03);
+    }
+
+    @Test
+    public void testSmallCardinalities() {
+        // Then
+        assertEquals(0, Streams.<Integer>empty().approxDistinct());
+        assertEquals(3, Streams.from(1, 2, 3, 2, 1).approxDistinct());
+    }
+
+    @Test
+    public void testMergeMatchesSinglePass() {
+        // Given
+        final HyperLogLog<Long> first = Streams.range(0L, 30_000L).collect(Collectors.toHyperLogLog(12));
+        final HyperLogLog<Long> second = Streams.range(20_000L, 50_000L).collect(Collectors.toHyperLogLog(12));
+        final HyperLogLog<Long> whole = Streams.range(0L, 50_000L).collect(Collectors.toHyperLogLog(12));
+
+        // Then
+        assertEquals(whole.estimate(), first.merge(second).estimate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeRejectsOtherPrecision() {
+        // When
+        HyperLogLog.create(10).merge(HyperLogLog.create(12));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeRejectsOtherHasher() {
+        // When
+        HyperLogLog.<String>create(12).merge(HyperLogLog.create(12, it -> (long) it.length()));
+    }
+}
@@ -0,0 +1,60 @@
+package org.functional.collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class KllSketchTest {
+
+    @Test
+    public void testQuantilesAreWithinRankError() {
+        // When
+        final double[] quantiles = Streams.range(0, 1_000_000)
+            .map(it -> (int) ((it * 7919L) % 1_000_000))
+            .approxQuantiles(it -> it, 0, 0.5, 0.9, 0.99, 1);
+
+        // Then
+        assertEquals(0, quantiles[0], 0);
+        assertEquals(500_000, quantiles[1], 20_000);
+        assertEquals(900_000, quantiles[2], 20_000);
+        assertEquals(990_000, quantiles[3], 20_000);
+        assertEquals(999_999, quantiles[4], 0);
+    }
+
+    @Test
+    public void testMemoryIsBounded() {
+        // Given
+        final KllSketch sketch = KllSketch.create(100);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(i);
+        }
+
+        // Then
+        assertEquals(100_000, sketch.getCount());
+        assertTrue(sketch.toString(), sketch.toString().matches(".*retained=([0-9]{1,3})\\)"));
+    }
+
+    @Test
+    public void testMerge() {
+        // Given
+        final KllSketch low = Streams.range(0, 50_000).collect(Collectors.toKllSketch(it -> it, 200));
+        final KllSketch high = Streams.range(50_000, 100_000).collect(Collectors.toKllSketch(it -> it, 200));
+
+        // When
+        final KllSketch merged = low.merge(high);
+
+        // Then
+        assertEquals(100_000, merged.getCount());
+        assertEquals(0, merged.getMin(), 0);
+        assertEquals(99_999, merged.getMax(), 0);
+        assertEquals(50_000, merged.quantile(0.5), 2_000);
+    }
+
+    @Test
+    public void testEmptySketch() {
+        // Then
+        assertTrue(Double.isNaN(KllSketch.create().quantile(0.5)));
+    }
+}
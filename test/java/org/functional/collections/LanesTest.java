@@ -0,0 +1,148 @@
+package org.functional.collections;
+
+import org.functional.Tuple;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LanesTest {
+
+    private final Stream<Tuple<Integer, Integer>> events = Streams.range(0, 10_000)
+        .map(it -> Tuple.create(it % 37, it));
+
+    @Test
+    public void testFoldLanesKeepsPerKeyOrder() {
+        // When
+        final PersistentVector<Map<Integer, Integer>> lanes = events
+            .partitionBy(Tuple::getItem1, 4)
+            .withLaneCapacity(16)
+            .foldLanes(HashMap::new, (lastSeen, event) -> {
+                final Integer previous = lastSeen.put(event.getItem1(), event.getItem2());
+                assertTrue(previous == null || previous < event.getItem2());
+                return lastSeen;
+            });
+
+        // Then
+        assertEquals(4, lanes.size());
+        final Set<Integer> keys = new HashSet<>();
+        for (final Map<Integer, Integer> lane: lanes) {
+            for (final Integer key: lane.keySet()) {
+                assertTrue("key in two lanes: " + key, keys.add(key));
+            }
+        }
+        assertEquals(37, keys.size());
+    }
+
+    @Test
+    public void testLanePipelineAndMerge() {
+        // When
+        final List<Integer> evens = events
+            .partitionBy(Tuple::getItem1, 3)
+            .map(lane -> lane.filter(it -> it.getItem2() % 2 == 0).map(Tuple::getItem2))
+            .mergeLanes()
+            .toStream()
+            .take(20_000);
+
+        // Then
+        assertEquals(5_000, evens.size());
+        assertEquals(24_995_000L, evens.stream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test
+    public void testMergeLanesReturnsEveryItem() {
+        // When
+        final long total = events
+            .partitionBy(Tuple::getItem1, 8)
+            .withLaneCapacity(4)
+            .mergeLanes()
+            .toStream()
+            .foldLeft(0L, (sum, event) -> sum + event.getItem2());
+
+        // Then
+        assertEquals(49_995_000L, total);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLaneFailureIsRethrown() {
+        // When
+        events
+            .partitionBy(Tuple::getItem1, 4)
+            .withLaneCapacity(2)
+            .foldLanes(() -> 0, (count, event) -> {
+                if (event.getItem2() == 5_000) {
+                    throw new IllegalStateException("bad event");
+                }
+                return count + 1;
+            });
+    }
+
+    @Test
+    public void testCustomThreadFactory() {
+        // Given
+        final AtomicInteger created = new AtomicInteger();
+
+        // When
+        final PersistentVector<Integer> counts = events
+            .partitionBy(Tuple::getItem1, 2)
+            .withThreadFactory(runnable -> {
+                created.incrementAndGet();
+                final Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            })
+            .foldLanes(() -> 0, (count, event) -> count + 1);
+
+        // Then
+        assertEquals(3, created.get());
+        assertEquals(10_000, counts.get(0) + counts.get(1));
+    }
+
+    @Test
+    public void testClosingMergedLanesStopsThreads() throws InterruptedException {
+        // Given
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final Lanes<Integer> lanes = Streams.startingAt(0)
+            .partitionBy(it -> it % 5, 4)
+            .withLaneCapacity(2)
+            .withThreadFactory(runnable -> {
+                final Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                threads.add(thread);
+                return thread;
+            });
+
+        // When
+        final List<Integer> firstItems;
+        final Stream<Integer> merged;
+        try (final Lanes.Merged<Integer> handle = lanes.mergeLanes()) {
+            merged = handle.toStream();
+            firstItems = merged.take(5);
+        }
+        for (final Thread thread: threads) {
+            thread.join(5_000);
+        }
+
+        // Then
+        assertEquals(5, firstItems.size());
+        assertEquals(5, threads.size());
+        for (final Thread thread: threads) {
+            assertFalse("still running: " + thread.getName(), thread.isAlive());
+        }
+        try {
+            merged.foldLeft(0, Integer::sum);
+            fail("expected the closed merge to fail");
+        }
+        catch (final CancellationException e) {
+            assertEquals("Merged lanes have been closed", e.getMessage());
+        }
+    }
+}
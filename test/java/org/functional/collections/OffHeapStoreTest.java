@@ -0,0 +1,107 @@
+package org.functional.collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class OffHeapStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() {
+        // Given
+        try (final OffHeapStore<Integer> store = Streams.range(0, 1000).toOffHeap(Codecs.ints())) {
+            // When
+            final Stream<Integer> stream = store.toStream();
+
+            // Then
+            assertEquals(1000, store.size());
+            assertEquals(1000, stream.knownSize());
+            assertEquals(Integer.valueOf(499_500), stream.foldLeft(0, Integer::sum));
+            assertEquals(Arrays.asList(0, 1, 2), store.toStream().take(3));
+        }
+    }
+
+    @Test
+    public void testItemsSpanSegments() {
+        // Given
+        final Stream<String> strings = Streams.range(0, 100).map(it -> "item-" + it);
+
+        // When
+        final OffHeapStore<String> store = OffHeapStore.from(strings, Codecs.strings(), 64, null);
+
+        // Then
+        assertTrue(store.segmentCount() > 1);
+        assertTrue(store.toStream().corresponds(strings));
+    }
+
+    @Test
+    public void testItemLargerThanSegment() {
+        // Given
+        final String large = new String(new char[1000]).replace('\0', 'x');
+
+        // When
+        final OffHeapStore<String> store = OffHeapStore.from(Streams.from("a", large, "b"), Codecs.strings(), 16, null);
+
+        // Then
+        assertEquals(Arrays.asList("a", large, "b"), store.toStream().take(3));
+    }
+
+    @Test
+    public void testSpillToFile() throws Exception {
+        // Given
+        final File directory = folder.newFolder();
+
+        // When
+        final OffHeapStore<Long> store = Streams.range(0L, 10_000L).toOffHeap(Codecs.longs(), directory.toPath());
+
+        // Then
+        assertEquals(1, directory.listFiles().length);
+        assertEquals(Long.valueOf(9_999L), store.toStream().drop(9_999).getHeadOption().get());
+
+        // When
+        store.free();
+
+        // Then
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAccessAfterFree() {
+        // Given
+        final OffHeapStore<Double> store = Streams.from(1.0, 2.0).toOffHeap(Codecs.doubles());
+        final Stream<Double> stream = store.toStream();
+
+        // When
+        store.free();
+
+        // Then
+        stream.getTail();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsEmptyRecords() {
+        // Given
+        final Codec<String> empty = new Codec<String>() {
+
+            @Override
+            public void encode(final String item, final ByteBuffer buffer) { }
+
+            @Override
+            public String decode(final ByteBuffer buffer) {
+                return "";
+            }
+        };
+
+        // When
+        Streams.from("a", "b").toOffHeap(empty);
+    }
+}
@@ -0,0 +1,124 @@
+package org.functional.collections;
+
+import org.functional.Tuple;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PersistentHashMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        // Given
+        PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+        for (int i = 0; i < 10_000; i++) {
+            map = map.put(i, "v" + i);
+        }
+
+        // Then
+        assertEquals(10_000, map.size());
+        assertEquals("v1234", map.get(1234).orElse(null));
+        assertFalse(map.get(10_000).isPresent());
+    }
+
+    @Test
+    public void testPersistence() {
+        // Given
+        final PersistentHashMap<String, Integer> before = PersistentHashMap.<String, Integer>empty().put("a", 1);
+
+        // When
+        final PersistentHashMap<String, Integer> after = before.put("a", 2).put("b", 3);
+
+        // Then
+        assertEquals(1, (int) before.get("a").orElse(0));
+        assertEquals(2, (int) after.get("a").orElse(0));
+        assertEquals(1, before.size());
+        assertEquals(2, after.size());
+    }
+
+    @Test
+    public void testHashCollisions() {
+        // Given
+        final PersistentHashMap<Collider, Integer> map = PersistentHashMap.<Collider, Integer>empty()
+            .put(new Collider("a"), 1)
+            .put(new Collider("b"), 2)
+            .put(new Collider("c"), 3);
+
+        // When
+        final PersistentHashMap<Collider, Integer> removed = map.remove(new Collider("b"));
+
+        // Then
+        assertEquals(3, map.size());
+        assertEquals(2, removed.size());
+        assertEquals(3, (int) removed.get(new Collider("c")).orElse(0));
+        assertFalse(removed.containsKey(new Collider("b")));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        // Given
+        PersistentHashMap<Integer, Integer> map = Streams.from(1, 2, 3)
+            .zip(Streams.startingAt(100))
+            .toHashMap(Tuple::getItem1, Tuple::getItem2);
+
+        // When
+        for (int key = 1; key <= 3; key++) {
+            map = map.remove(key);
+        }
+
+        // Then
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testBuilderDoesNotLeakIntoBuiltMap() {
+        // Given
+        final PersistentHashMap.Builder<Integer, Integer> builder = PersistentHashMap.newBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            builder.put(i, i);
+        }
+
+        // When
+        final PersistentHashMap<Integer, Integer> built = builder.build();
+        final PersistentHashMap<Integer, Integer> updated = built.put(7, -7).put(5_000, 5_000);
+
+        // Then
+        assertEquals(5_000, built.size());
+        assertEquals(7, (int) built.get(7).orElse(0));
+        assertEquals(-7, (int) updated.get(7).orElse(0));
+        assertEquals(5_001, updated.size());
+    }
+
+    @Test
+    public void testStreamRoundTrip() {
+        // Given
+        final PersistentHashMap<Integer, Integer> map = Streams.from(1, 2, 3)
+            .toHashMap(it -> it, it -> it * it);
+
+        // When
+        final PersistentHashMap<Integer, Integer> copy = PersistentHashMap.from(map.toStream());
+
+        // Then
+        assertEquals(map, copy);
+        assertEquals(9, (int) copy.get(3).orElse(0));
+    }
+
+    private static final class Collider {
+
+        private final String name;
+
+        private Collider(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Collider && ((Collider) other).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
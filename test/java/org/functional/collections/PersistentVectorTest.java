@@ -0,0 +1,102 @@
+package org.functional.collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PersistentVectorTest {
+
+    private static final int LARGE_SIZE = 40_000;
+
+    @Test
+    public void testAppendAndGet() {
+        // Given
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            vector = vector.append(i);
+        }
+
+        // Then
+        assertEquals(LARGE_SIZE, vector.size());
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            assertEquals(i, (int) vector.get(i));
+        }
+        assertFalse(vector.getOption(LARGE_SIZE).isPresent());
+    }
+
+    @Test
+    public void testUpdateSharesStructure() {
+        // Given
+        final PersistentVector<Integer> original = PersistentVector.from(Streams.startingAt(0).take(1_000));
+
+        // When
+        final PersistentVector<Integer> updated = original.update(500, -1);
+
+        // Then
+        assertEquals(500, (int) original.get(500));
+        assertEquals(-1, (int) updated.get(500));
+        assertEquals(original.size(), updated.size());
+    }
+
+    @Test
+    public void testDropLast() {
+        // Given
+        PersistentVector<Integer> vector = PersistentVector.from(Streams.startingAt(0).take(LARGE_SIZE));
+
+        // When
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            assertEquals(i, (int) vector.get(i));
+            vector = vector.dropLast();
+        }
+
+        // Then
+        assertTrue(vector.isEmpty());
+    }
+
+    @Test
+    public void testBuilderMatchesAppends() {
+        for (final int size: new int[] { 0, 1, 32, 33, 1024, 1056, 33_000 }) {
+            // Given
+            final PersistentVector.Builder<Integer> builder = PersistentVector.newBuilder();
+            PersistentVector<Integer> appended = PersistentVector.empty();
+            for (int i = 0; i < size; i++) {
+                builder.append(i);
+                appended = appended.append(i);
+            }
+
+            // When
+            final PersistentVector<Integer> built = builder.build();
+
+            // Then
+            assertEquals(appended, built);
+            assertEquals(size + 1, built.append(size).size());
+            if (size > 0) {
+                assertEquals(size - 1, (int) built.dropLast().append(size - 1).get(size - 1));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderIsSingleUse() {
+        // Given
+        final PersistentVector.Builder<Integer> builder = PersistentVector.<Integer>newBuilder().append(1);
+        builder.build();
+
+        // When
+        builder.append(2);
+    }
+
+    @Test
+    public void testStreamRoundTrip() {
+        // Given
+        final PersistentVector<Integer> vector = PersistentVector.of(1, 2, 3, 4);
+
+        // When
+        final Stream<Integer> stream = vector.toStream();
+
+        // Then
+        assertTrue(stream.corresponds(Streams.from(1, 2, 3, 4)));
+        assertEquals(vector, stream.toVector());
+        assertEquals(3, (int) stream.drop(2).getHeadOption().orElse(0));
+    }
+}
@@ -0,0 +1,157 @@
+package org.functional.collections;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SharedStreamTest {
+
+    @Test
+    public void testSubscribersPullUpstreamOnce() {
+        // Given
+        final AtomicInteger evaluations = new AtomicInteger();
+        final SharedStream<Integer> shared = Streams.range(0, 100)
+            .map(it -> {
+                evaluations.incrementAndGet();
+                return it;
+            })
+            .share(4, SharedStream.SlowReaderPolicy.FAIL);
+
+        final Stream<Integer> first = shared.subscribe();
+        final Stream<Integer> second = shared.subscribe();
+
+        // When
+        final int firstThird = first.drop(2).getHeadOption().get();
+        final int secondThird = second.drop(2).getHeadOption().get();
+
+        // Then
+        assertEquals(2, firstThird);
+        assertEquals(2, secondThird);
+        assertEquals(3, evaluations.get());
+        assertEquals(3, shared.produced());
+    }
+
+    @Test
+    public void testSubscribersInterleave() {
+        // Given
+        final SharedStream<Integer> shared = Streams.range(0, 10).share(2, SharedStream.SlowReaderPolicy.FAIL);
+        Stream<Integer> first = shared.subscribe();
+        Stream<Integer> second = shared.subscribe();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), first.getHeadOption().get());
+            assertEquals(Integer.valueOf(i), second.getHeadOption().get());
+            first = first.getTail();
+            second = second.getTail();
+        }
+
+        // Then
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSlowReaderFails() {
+        // Given
+        final SharedStream<Integer> shared = Streams.range(0, 100).share(4, SharedStream.SlowReaderPolicy.FAIL);
+        final Stream<Integer> slow = shared.subscribe();
+        shared.subscribe().drop(10).getHeadOption();
+
+        // When
+        slow.getHeadOption();
+    }
+
+    @Test
+    public void testSlowReaderSkipsAhead() {
+        // Given
+        final SharedStream<Integer> shared = Streams.range(0, 100).share(4, SharedStream.SlowReaderPolicy.SKIP_AHEAD);
+        final Stream<Integer> slow = shared.subscribe();
+        shared.subscribe().drop(10).getHeadOption();
+
+        // Then
+        assertEquals(Arrays.asList(7, 8, 9, 10, 11), slow.take(5));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadingAfterCloseFails() {
+        // Given
+        final SharedStream<Integer> shared = Streams.range(0, 100).share(4, SharedStream.SlowReaderPolicy.FAIL);
+        final Stream<Integer> lagging = shared.subscribe();
+        lagging.getHeadOption();
+        shared.subscribe().drop(2).getHeadOption();
+
+        // When
+        shared.close();
+        lagging.getTail().getHeadOption();
+    }
+
+    @Test
+    public void testReplayToLateSubscriber() {
+        // Given
+        final SharedStream<Integer> shared = Streams.range(0, 100).replay(3, SharedStream.SlowReaderPolicy.FAIL);
+        shared.subscribe().drop(5).getHeadOption();
+
+        // Then
+        assertEquals(Arrays.asList(3, 4, 5, 6), shared.subscribe().take(4));
+    }
+
+    @Test
+    public void testCacheToDisk() throws IOException {
+        // Given
+        final File file = File.createTempFile("shared", ".bin");
+        file.deleteOnExit();
+
+        try (final SharedStream<String> shared = Streams.from("a", "b", "c").cacheToDisk(file.toPath())) {
+            // When
+            final Stream<String> first = shared.subscribe();
+            assertEquals(Arrays.asList("a", "b", "c"), first.take(10));
+
+            // Then
+            assertEquals(Arrays.asList("a", "b", "c"), shared.subscribe().take(10));
+            assertTrue(file.length() > 0);
+        }
+    }
+
+    @Test
+    public void testCacheToDiskWithCodec() throws IOException {
+        // Given
+        final File file = File.createTempFile("shared", ".bin");
+        file.deleteOnExit();
+
+        try (final SharedStream<Integer> shared = Streams.range(0, 1000).cacheToDisk(file.toPath(), Codecs.ints())) {
+            // When
+            shared.subscribe().drop(999).getHeadOption();
+
+            // Then
+            assertEquals(1000 * (Integer.BYTES + Integer.BYTES), file.length());
+            assertEquals(Integer.valueOf(499_500), shared.subscribe().foldLeft(0, Integer::sum));
+        }
+    }
+
+    @Test
+    public void testCacheToDiskLeavesOnlyTheCache() throws IOException {
+        // Given
+        final File directory = Files.createTempDirectory("shared").toFile();
+        directory.deleteOnExit();
+        final File file = new File(directory, "cache.bin");
+        file.deleteOnExit();
+        final SharedStream<Integer> shared = Streams.range(0, 10_000).cacheToDisk(file.toPath(), Codecs.ints());
+        final Stream<Integer> slow = shared.subscribe();
+
+        // When
+        shared.subscribe().drop(9_999).getHeadOption();
+        final int sum = slow.foldLeft(0, Integer::sum);
+        shared.close();
+
+        // Then
+        assertEquals(49_995_000, sum);
+        assertEquals(Arrays.asList("cache.bin"), Arrays.asList(directory.list()));
+    }
+}
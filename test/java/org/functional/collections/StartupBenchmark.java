@@ -0,0 +1,42 @@
+package org.functional.collections;
+
+import org.functional.Lazy;
+
+import java.util.List;
+
+// Time to first element of a typical short-lived pipeline, measured in a fresh process so
+// class loading and lambda bootstrap are included. Run it once per process, on the JVM with
+// `java -cp target/classes:target/test-classes org.functional.collections.StartupBenchmark`
+// or as the native image built by `mvn -Pnative package`, and compare the printed times
+public final class StartupBenchmark {
+
+    public static void main(final String[] args) {
+        final long start = System.nanoTime();
+
+        final Stream<Integer> pipeline = Streams.range(0, 1_000_000)
+            .map(it -> it * 3)
+            .filter(it -> it % 2 == 0)
+            .zip(Streams.startingAt(0))
+            .map(it -> it.getItem1() + it.getItem2());
+        final Integer first = pipeline.getHeadOption().get();
+        final long firstElement = System.nanoTime();
+
+        final List<Integer> taken = pipeline.take(100);
+        final long hundredElements = System.nanoTime();
+
+        final Lazy<Integer> lazy = Lazy.of(() -> first).map(it -> it + taken.size());
+        final Integer forced = lazy.get();
+        final long lazyForced = System.nanoTime();
+
+        System.out.printf(
+            "first element %d after %.3f ms, 100 elements after %.3f ms, lazy %d after %.3f ms%n",
+            first, millis(start, firstElement),
+            millis(start, hundredElements),
+            forced, millis(start, lazyForced)
+        );
+    }
+
+    private static double millis(final long from, final long to) {
+        return (to - from) / 1_000_000.0;
+    }
+}
@@ -1,7 +1,17 @@
 package org.functional.collections;
 
+import org.functional.Tuple;
 import org.junit.Test;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.*;
 
 public class StreamTest {
@@ -64,6 +74,379 @@ public class StreamTest {
         assertEquals("{0, 1, 2}", stream.toString());
     }
 
+    @Test
+    public void testFirstOnInfiniteStream() {
+        // Then
+        assertEquals(12, (int) naturals.first(it -> it > 10 && it % 3 == 0).orElse(0));
+        assertEquals(15, (int) naturals.nth(1, it -> it > 10 && it % 3 == 0).orElse(0));
+        assertEquals(2, (int) naturals.firstNot(it -> it % 2 == 1).orElse(0));
+    }
+
+    @Test
+    public void testShortCircuitStopsPullingTails() {
+        // Given
+        final AtomicInteger pulled = new AtomicInteger();
+        final Stream<Integer> counted = Streams.repeat(1, it -> {
+            pulled.incrementAndGet();
+            return it + 1;
+        });
+
+        // When
+        final boolean found = counted.exist(it -> it == 5);
+        final boolean allSmall = counted.forAll(it -> it < 3);
+
+        // Then
+        assertTrue(found);
+        assertFalse(allSmall);
+        assertEquals(4, pulled.get());
+    }
+
+    @Test
+    public void testTakeStopsAtCount() {
+        // Given
+        final AtomicInteger mapped = new AtomicInteger();
+        final Stream<Integer> counted = Streams.from(1, 2, 3, 4, 5).map(it -> {
+            mapped.incrementAndGet();
+            return it * 2;
+        });
+
+        // When
+        final List<Integer> taken = counted.take(3);
+
+        // Then
+        assertEquals(Arrays.asList(2, 4, 6), taken);
+        assertEquals(3, mapped.get());
+    }
+
+    @Test
+    public void testExistOnEmptyStream() {
+        // Then
+        assertFalse(Streams.<Integer>empty().exist(it -> true));
+        assertTrue(Streams.<Integer>empty().forAll(it -> false));
+        assertFalse(Streams.<Integer>empty().first(it -> true).isPresent());
+    }
+
+    @Test
+    public void testDeepAppendChainIsStackSafe() {
+        // Given
+        Stream<Integer> stream = Streams.empty();
+        for (int i = 0; i < 1_000_000; i++) {
+            stream = stream.append(i);
+        }
+
+        // When
+        final long sum = stream.foldLeft(0L, (r, it) -> r + it);
+
+        // Then
+        assertEquals(499_999_500_000L, sum);
+    }
+
+    @Test
+    public void testDeepPrependedStreamsAreStackSafe() {
+        // Given
+        Stream<Integer> stream = Streams.empty();
+        for (int i = 0; i < 1_000_000; i++) {
+            stream = Streams.from(i).append(stream);
+        }
+
+        // Then
+        assertEquals(999_999, (int) stream.getHeadOption().orElse(0));
+        assertEquals(1_000_000, stream.foldLeft(0, (r, it) -> r + 1).intValue());
+    }
+
+    @Test
+    public void testLongToStringIsStackSafe() {
+        // Given
+        final Stream<Integer> stream = Streams.from(Streams.startingAt(0).take(200_000));
+
+        // When
+        final String string = stream.toString();
+
+        // Then
+        assertTrue(string.startsWith("{0, 1, 2, "));
+        assertTrue(string.endsWith(", 199999}"));
+    }
+
+    @Test
+    public void testStreamBuilder() {
+        // Given
+        Streams.StreamBuilder<Integer> builder = Streams.newBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder = builder.append(i);
+        }
+
+        // When
+        final Stream<Integer> stream = builder.build();
+
+        // Then
+        assertTrue(stream.corresponds(Streams.startingAt(0)));
+        assertEquals(99_999, (int) stream.drop(99_999).getHeadOption().orElse(0));
+    }
+
+    @Test
+    public void testFlatMapSkipsEmptyInnerIterables() {
+        // Given
+        final Stream<Integer> stream = Streams
+            .from(0, 1, 2, 3)
+            .flatMap(it -> it % 2 == 0 ? Collections.<Integer>emptyList() : Arrays.asList(it, it * 10));
+
+        // Then
+        assertTrue(stream.corresponds(Streams.from(1, 10, 3, 30)));
+        assertEquals(4, stream.foldLeft(0, (r, it) -> r + 1).intValue());
+    }
+
+    @Test
+    public void testFlatMapTreatsNullAsEmpty() {
+        // Given
+        final Stream<Integer> stream = Streams
+            .from(0, 1, 2, 3)
+            .flatMap(it -> it % 2 == 0 ? null : Arrays.asList(it, it * 10));
+
+        // Then
+        assertTrue(stream.corresponds(Streams.from(1, 10, 3, 30)));
+    }
+
+    @Test
+    public void testFlatMapOverManyEmptyInnersIsStackSafe() {
+        // When
+        final Optional<Integer> found = naturals
+            .flatMap(it -> it % 1_000_000 == 0 ? Collections.singletonList(it) : Collections.<Integer>emptyList())
+            .getHeadOption();
+
+        // Then
+        assertEquals(1_000_000, (int) found.orElse(0));
+    }
+
+    @Test
+    public void testFlatMapStreamIsLazy() {
+        // Given
+        final AtomicInteger expanded = new AtomicInteger();
+        final Stream<Integer> stream = naturals.flatMapStream(it -> {
+            expanded.incrementAndGet();
+            return Streams.from(it, -it);
+        });
+
+        // When
+        final List<Integer> taken = stream.take(5);
+
+        // Then
+        assertEquals(Arrays.asList(1, -1, 2, -2, 3), taken);
+        assertEquals(3, expanded.get());
+    }
+
+    @Test
+    public void testRanges() {
+        // Then
+        assertEquals(Arrays.asList(0, 3, 6, 9), Streams.range(0, 10, 3).take(10));
+        assertEquals(Arrays.asList(5, 4, 3), Streams.range(5, 2, -1).take(10));
+        assertTrue(Streams.range(3, 3).isEmpty());
+        assertEquals(4, Streams.range(0L, 8L, 2L).knownSize());
+        assertEquals(
+            Arrays.asList(BigInteger.valueOf(10), BigInteger.valueOf(15)),
+            Streams.range(BigInteger.TEN, BigInteger.valueOf(20), BigInteger.valueOf(5)).take(5)
+        );
+    }
+
+    @Test
+    public void testRangeDropAndNthAreConstantTime() {
+        // Given
+        final Stream<Long> longs = Streams.range(0L, Long.MAX_VALUE);
+
+        // Then
+        assertEquals(1_999_999_999L, (long) longs.drop(1_999_999_999).getHeadOption().orElse(0L));
+        assertEquals(Long.MAX_VALUE, longs.knownSize());
+        assertEquals(2_000_000_000 - 1, (int) Streams.range(0, 2_000_000_000).nth(1_999_999_999).orElse(0));
+        assertFalse(Streams.range(0, 10).nth(10).isPresent());
+    }
+
+    @Test
+    public void testDropKeepsMemoizedMappedValues() {
+        // Given
+        final AtomicInteger calls = new AtomicInteger();
+        final Stream<Integer> mapped = Streams.range(0, 100).map(it -> {
+            calls.incrementAndGet();
+            return it * 2;
+        });
+        mapped.take(10);
+        final int afterTake = calls.get();
+
+        // When
+        final Optional<Integer> fifth = mapped.nth(5);
+        final Stream<Integer> dropped = mapped.drop(50);
+
+        // Then
+        assertEquals(Integer.valueOf(10), fifth.get());
+        assertEquals(afterTake, calls.get());
+        assertEquals(Integer.valueOf(100), dropped.getHeadOption().get());
+        assertEquals(afterTake + 1, calls.get());
+    }
+
+    @Test
+    public void testIndicesFailPastIntRange() {
+        // Given
+        final Stream<Integer> last = Streams.indices().drop(Integer.MAX_VALUE);
+
+        // Then
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE), last.getHeadOption().get());
+        try {
+            last.getTail().getHeadOption();
+            fail("expected ArithmeticException");
+        }
+        catch (final ArithmeticException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testKnownSizePropagation() {
+        // Given
+        final Stream<Integer> range = Streams.range(0, 100);
+
+        // Then
+        assertEquals(100, range.map(it -> it * 2).knownSize());
+        assertEquals(3, range.zip(Streams.range(0, 3)).knownSize());
+        assertEquals(-1, range.zip(naturals).knownSize());
+        assertEquals(100, range.zipWithIndex().knownSize());
+        assertEquals(-1, range.filter(it -> it > 2).knownSize());
+        assertEquals(198, (int) range.map(it -> it * 2).drop(99).getHeadOption().orElse(0));
+        assertEquals(100, range.collect(Collectors.toIntArray(it -> it)).length);
+    }
+
+    @Test
+    public void testUnfold() {
+        // Given
+        final Stream<Integer> countdown = Streams.unfold(
+            5,
+            n -> n > 0 ? Optional.of(Tuple.create(n, n - 1)) : Optional.empty()
+        );
+
+        // Then
+        assertEquals(Arrays.asList(5, 4, 3, 2, 1), countdown.take(10));
+        assertEquals(15, (int) countdown.foldLeft(0, Integer::sum));
+        assertEquals(3, (int) countdown.drop(2).getHeadOption().orElse(0));
+    }
+
+    @Test
+    public void testGeneratorFoldsWithoutNodes() {
+        // Given
+        final AtomicInteger runs = new AtomicInteger();
+        final Stream<Integer> generated = Streams.generateReplayable(sink -> {
+            runs.incrementAndGet();
+            for (int i = 0; i < 1_000 && sink.accept(i); i++) { }
+        });
+
+        // When
+        final long sum = generated.foldLeft(0L, (r, it) -> r + it);
+        final int small = generated.forEachWhile(it -> it < 10, it -> { });
+
+        // Then
+        assertEquals(499_500L, sum);
+        assertEquals(10, small);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void testGeneratorPullAccess() {
+        // Given
+        final Stream<Integer> squares = Streams.generateReplayable(sink -> {
+            for (int i = 0; sink.accept(i * i); i++) { }
+        });
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 4, 9, 16), squares.take(5));
+        assertEquals(10_000, (int) squares.drop(100).getHeadOption().orElse(0));
+        assertEquals(Streams.range(0, 100).map(it -> it * it).take(100), squares.take(100));
+    }
+
+    @Test
+    public void testRepeatFold() {
+        // When
+        final int taken = naturals.forEachWhile(it -> it <= 1_000_000, it -> { });
+
+        // Then
+        assertEquals(1_000_000, taken);
+        assertEquals(3, (int) naturals.drop(2).getHeadOption().orElse(0));
+    }
+
+    @Test
+    public void testFoldsReuseMemoizedTails() {
+        // Given
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger runs = new AtomicInteger();
+        final Stream<Integer> repeated = Streams.repeat(0, it -> {
+            calls.incrementAndGet();
+            return it + 1;
+        });
+        final Stream<Integer> unfolded = Streams.unfold(0, it -> {
+            calls.incrementAndGet();
+            return it < 10 ? Optional.of(Tuple.create(it, it + 1)) : Optional.empty();
+        });
+        final Stream<Integer> generated = Streams.generateReplayable(sink -> {
+            runs.incrementAndGet();
+            for (int i = 0; i < 40 && sink.accept(i); i++) { }
+        });
+
+        // When
+        repeated.drop(5).getHeadOption();
+        unfolded.drop(5).getHeadOption();
+        generated.drop(20).getHeadOption();
+        calls.set(0);
+        runs.set(0);
+        final int repeatedSum = repeated.forEachWhile(it -> it < 8, it -> { });
+        final int unfoldedSum = unfolded.foldLeft(0, Integer::sum);
+        final int generatedSum = generated.foldLeft(0, Integer::sum);
+
+        // Then
+        assertEquals(8, repeatedSum);
+        assertEquals(45, unfoldedSum);
+        assertEquals(780, generatedSum);
+        assertEquals(3 + 5, calls.get());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testScanLeft() {
+        // Given
+        final Stream<Integer> prefixSums = Streams.from(1, 2, 3, 4).scanLeft(0, Integer::sum);
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 3, 6, 10), prefixSums.take(10));
+        assertEquals(5, Streams.range(0, 4).scanLeft(0, Integer::sum).knownSize());
+    }
+
+    @Test
+    public void testRunningOperatorsAreLazy() {
+        // Given
+        final AtomicInteger pulled = new AtomicInteger();
+        final Stream<Integer> source = naturals.map(it -> {
+            pulled.incrementAndGet();
+            return it;
+        });
+
+        // When
+        final List<Long> sums = source.runningSumAsLong(it -> it).takeWhile(it -> it < 20);
+
+        // Then
+        assertEquals(Arrays.asList(1L, 3L, 6L, 10L, 15L), sums);
+        assertEquals(6, pulled.get());
+    }
+
+    @Test
+    public void testRunningReduceMinMax() {
+        // Given
+        final Stream<Integer> values = Streams.from(3, 1, 4, 1, 5, 0);
+
+        // Then
+        assertEquals(Arrays.asList(3, 4, 8, 9, 14, 14), values.runningReduce(Integer::sum).take(10));
+        assertEquals(Arrays.asList(3, 1, 1, 1, 1, 0), values.runningMin(Integer::compare).take(10));
+        assertEquals(Arrays.asList(3, 3, 4, 4, 5, 5), values.runningMax(Integer::compare).take(10));
+        assertEquals(
+            Arrays.asList(1.5, 2.0, 4.0),
+            Streams.from(3, 1, 4).runningSumAsDouble(it -> it / 2.0).take(3)
+        );
+        assertTrue(Streams.<Integer>empty().runningReduce(Integer::sum).isEmpty());
+    }
+
     private Stream<Integer> factorial() {
         return Streams
             .create(
@@ -85,4 +468,56 @@ public class StreamTest {
             );
 
     }
+
+    @Test
+    public void testMergeSorted() {
+        // Given
+        final List<Stream<Integer>> shards = new ArrayList<>();
+        for (int shard = 0; shard < 64; shard++) {
+            shards.add(Streams.range(shard, 6400, 64));
+        }
+
+        // When
+        final List<Integer> merged = Streams.mergeSorted(Integer::compare, shards).take(10_000);
+
+        // Then
+        assertEquals(6400, merged.size());
+        for (int i = 0; i < merged.size(); i++) {
+            assertEquals(Integer.valueOf(i), merged.get(i));
+        }
+    }
+
+    @Test
+    public void testMergeSortedIsStableAndLazy() {
+        // Given
+        final AtomicInteger pulled = new AtomicInteger();
+        final Stream<String> first = Streams.from("a1", "b1", "c1");
+        final Stream<String> second = naturals.map(it -> {
+            pulled.incrementAndGet();
+            return "b2";
+        });
+
+        // When
+        final List<String> merged = Streams.mergeSorted(
+            Comparator.comparing((String it) -> it.charAt(0)),
+            first, Streams.empty(), second
+        ).take(3);
+
+        // Then
+        assertEquals(Arrays.asList("a1", "b1", "b2"), merged);
+        assertTrue(pulled.get() <= 2);
+    }
+
+    @Test
+    public void testInterleaveAndRoundRobin() {
+        // Given
+        final Stream<Integer> a = Streams.from(1, 4, 7, 9);
+        final Stream<Integer> b = Streams.from(2, 5);
+        final Stream<Integer> c = Streams.from(3, 6, 8);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), Streams.interleave(a, b, c).take(20));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), Streams.roundRobin(a, b, c).take(20));
+        assertEquals(Arrays.asList(2, 2, 3), Streams.interleave(naturals, naturals.drop(1)).drop(1).take(3));
+    }
 }